@@ -0,0 +1,212 @@
+package bogglesolver;
+
+/**
+ * @file BoggleBatch.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief solves many Boggle boards on a pool of threads
+ **/
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @brief a batch mode for BoggleSolver
+ * @details the dictionary is loaded once into a compacted CompactDLB, which
+ *  is never changed afterwards and is shared by every worker. Each board gets
+ *  its own BoggleSolver and WordSink so the workers share nothing else.
+ *  Results are printed in the order the boards were given, followed by the
+ *  total time and throughput.
+ *
+ *  Usage: BoggleBatch <dictionary> <threads> <board file or directory>...
+ *  (threads can be "max" to use every core, directories are searched for
+ *  board files recursively)
+ **/
+public class BoggleBatch {
+    //! The dictionary every board is solved with (only read from)
+    private final DictInterface dictionary;
+    //! The number of worker threads
+    private final int threads;
+
+    /**
+     * @brief the outcome of solving one board
+     **/
+    public static class Result {
+        //! The board file
+        public final File board;
+        //! The unique words found, in the order they were found (null on error)
+        public final List<String> words;
+        //! Why the board couldn't be solved (null on success)
+        public final String error;
+        //! Time spent reading and solving the board
+        public final long nanos;
+
+        /**
+         * @brief makes a result
+         * @param board the board file
+         * @param words the words found or null
+         * @param error the error message or null
+         * @param nanos the time spent on the board
+         **/
+        Result(File board, List<String> words, String error, long nanos) {
+            this.board = board;
+            this.words = words;
+            this.error = error;
+            this.nanos = nanos;
+        }
+    } /* Result */
+
+    /**
+     * @brief makes a batch solver
+     * @param dictionary the dictionary to solve with, must not be changed
+     *  while solving
+     * @param threads the number of worker threads
+     **/
+    public BoggleBatch(DictInterface dictionary, int threads) {
+        this.dictionary = dictionary;
+        this.threads = Math.max(1, threads);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length < 3) {
+            System.out.println("Insufficient arguments provided.");
+            System.out.println("Please provide the following: <dictionary> <threads> <board file or directory>...");
+            return;
+        }
+        int threads;
+        if(args[1].equals("max")) {
+            threads = Runtime.getRuntime().availableProcessors();
+        } else {
+            threads = Integer.parseInt(args[1]);
+        }
+        ArrayList<File> boards = new ArrayList<File>();
+        for(int i = 2; i < args.length; ++i) {
+            findBoards(new File(args[i]), boards);
+        }
+
+        long load_start = System.nanoTime();
+        BoggleBatch batch = new BoggleBatch(BoggleSolver.loadDictionary(args[0], true), threads);
+        long load_time = System.nanoTime() - load_start;
+        System.out.printf("Loaded %s in %.1f ms%n", args[0], load_time / 1e6);
+
+        long start = System.nanoTime();
+        List<Result> results = batch.solve(boards, System.out);
+        long elapsed = System.nanoTime() - start;
+
+        int failed = 0;
+        long words = 0;
+        for(Result result : results) {
+            if(result.error != null) {
+                ++failed;
+            } else {
+                words += result.words.size();
+            }
+        }
+        System.out.printf("Solved %d boards (%d failed, %d words) on %d threads in %.3f s: %.1f boards/sec%n",
+                          results.size() - failed, failed, words, batch.threads,
+                          elapsed / 1e9, results.size() * 1e9 / elapsed);
+    } /* main(String[] args) */
+
+    /**
+     * @brief solves every board on the worker threads
+     * @param boards the board files to solve
+     * @param out where to print each board's result as it is ready (in the
+     *  order of boards), or null to not print anything
+     * @return the result for each board, in the order of boards
+     **/
+    public List<Result> solve(List<File> boards, PrintStream out) throws InterruptedException {
+        // Dictionaries that finish building on first use do so here instead of
+        //  racing in the workers
+        dictionary.cursor();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayList<Result> results = new ArrayList<Result>(boards.size());
+        try {
+            ArrayList<Future<Result>> pending = new ArrayList<Future<Result>>(boards.size());
+            for(final File board : boards) {
+                pending.add(pool.submit(new Callable<Result>() {
+                    public Result call() {
+                        return solve(board);
+                    }
+                }));
+            }
+            for(Future<Result> future : pending) {
+                Result result;
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Board solve failed", e.getCause());
+                }
+                results.add(result);
+                if(out != null) {
+                    print(result, out);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    } /* solve(List<File> boards, PrintStream out) */
+
+    /**
+     * @brief reads and solves one board on the calling thread
+     * @param board the board file
+     * @return the result, with an error if the board couldn't be read
+     **/
+    public Result solve(File board) {
+        long start = System.nanoTime();
+        try {
+            Scanner board_scan = new Scanner(board);
+            char[][] grid;
+            try {
+                grid = BoggleSolver.readBoard(board_scan);
+            } finally {
+                board_scan.close();
+            }
+            List<String> words = new BoggleSolver(dictionary, grid).findWords();
+            return new Result(board, words, null, System.nanoTime() - start);
+        } catch (IOException | IllegalArgumentException e) {
+            return new Result(board, null, e.toString(), System.nanoTime() - start);
+        }
+    } /* solve(File board) */
+
+    /**
+     * @brief prints a board's result as a header line and one word per line
+     * @param result the result to print
+     * @param out where to print it
+     **/
+    private static void print(Result result, PrintStream out) {
+        StringBuilder text = new StringBuilder();
+        if(result.error != null) {
+            text.append("== ").append(result.board.getPath()).append(": ").append(result.error);
+            text.append(System.lineSeparator());
+        } else {
+            text.append(String.format("== %s: %d words (%.3f ms)%n",
+                                      result.board.getPath(), result.words.size(), result.nanos / 1e6));
+            for(String word : result.words) {
+                text.append(word).append(System.lineSeparator());
+            }
+        }
+        out.append(text);
+    } /* print(Result result, PrintStream out) */
+
+    /**
+     * @brief adds a board file, or every file under a directory, to a list
+     * @param path the file or directory
+     * @param boards where to add the files (directories in name order)
+     **/
+    private static void findBoards(File path, List<File> boards) {
+        if(!path.isDirectory()) {
+            boards.add(path);
+            return;
+        }
+        File[] files = path.listFiles();
+        if(files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for(File file : files) {
+            findBoards(file, boards);
+        }
+    } /* findBoards(File path, List<File> boards) */
+} /* BoggleBatch */
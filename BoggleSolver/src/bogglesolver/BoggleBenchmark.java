@@ -0,0 +1,83 @@
+package bogglesolver;
+
+/**
+ * @file BoggleBenchmark.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief benchmarks whole board solves
+ **/
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @brief baseline numbers for BoggleSolver
+ * @details solves the same boards over and over with both dictionaries,
+ *  writing the words found to a stream that only counts them so printing
+ *  isn't part of what is measured.
+ *
+ *  Usage: BoggleBenchmark [dictionary] [board files...]
+ **/
+public class BoggleBenchmark {
+    //! Boards solved when none are given
+    private static final String[] DEFAULT_BOARDS = { "sample.txt" };
+
+    public static void main(String[] args) throws IOException {
+        String file_name = "dict8.txt";
+        if(args.length > 0) {
+            file_name = args[0];
+        }
+        String[] board_files = DEFAULT_BOARDS;
+        if(args.length > 1) {
+            board_files = Arrays.copyOfRange(args, 1, args.length);
+        }
+
+        final char[][][] boards = new char[board_files.length][][];
+        for(int i = 0; i < board_files.length; ++i) {
+            Scanner board_scan = new Scanner(new File(board_files[i]));
+            boards[i] = BoggleSolver.readBoard(board_scan);
+            board_scan.close();
+        }
+        // Counts the characters of the words found instead of keeping them
+        final long[] written = new long[1];
+        final PrintStream sink = new PrintStream(new OutputStream() {
+            public void write(int b) {
+                ++written[0];
+            }
+
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+            }
+        });
+
+        // Only the calling thread's allocation is counted for the parallel runs
+        final ForkJoinPool pool = new ForkJoinPool();
+
+        System.out.println("Benchmarking " + boards.length + " boards with words from " + file_name);
+        Benchmark.header();
+        for(final boolean use_dlb : new boolean[] { false, true }) {
+            final DictInterface dictionary = BoggleSolver.loadDictionary(file_name, use_dlb);
+            String name = use_dlb ? "BoggleSolver (CompactDLB)" : "BoggleSolver (MyDictionary)";
+            Benchmark.run(name, boards.length, new Benchmark.Round() {
+                public long run() {
+                    written[0] = 0;
+                    for(char[][] board : boards) {
+                        new BoggleSolver(dictionary, board).findWords(sink);
+                    }
+                    sink.flush();
+                    return written[0];
+                }
+            });
+            Benchmark.run(name + " parallel", boards.length, new Benchmark.Round() {
+                public long run() {
+                    long found = 0;
+                    for(char[][] board : boards) {
+                        found += new BoggleSolver(dictionary, board).findWordsParallel(pool).size();
+                    }
+                    return found;
+                }
+            });
+        }
+        pool.shutdown();
+    } /* main(String[] args) */
+} /* BoggleBenchmark */
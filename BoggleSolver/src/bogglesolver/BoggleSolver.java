@@ -12,29 +12,46 @@ package bogglesolver;
 import bogglesolver.test.bob;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class BoggleSolver {
 
+    //We have 8 directions:
+    // 0 => up left
+    // 1 => up
+    // 2 => up right
+    // 3 => right
+    // 4 => down right
+    // 5 => down
+    // 6 => down left
+    // 7 => left
+    private static final int[] ROW_STEP = {-1, -1, -1, 0, 1, 1, 1, 0};
+    private static final int[] COL_STEP = {-1, 0, 1, 1, 1, 0, -1, -1};
+    //parallel searches split on the first two cells unless there are at
+    //least this many start cells per thread
+    private static final int TASKS_PER_THREAD = 8;
+
     private DictInterface D;
-    private char[][] theBoard;
-    private StringBuilder currentSolution;
+    private int rows;
+    private int cols;
+    //the board in row-major order, cell (row, col) is at row * cols + col
+    //(never changed once set, so several searches can share it)
+    private char[] theBoard;
+    //the cells next to each cell (in direction order), only those on the board
+    private int[][] neighbours;
 
     public static void main(String[] args) throws IOException {
         bob.print_hello();
-        new BoggleSolver();
+        new BoggleSolver(args.length > 0 && args[0].equals("DLB"));
     }
 
     public BoggleSolver() throws IOException {
-        //Read the dictionary
-        Scanner fileScan = new Scanner(new FileInputStream("dict8.txt"));
-        String st;
-        D = new MyDictionary();
+        this(false);
+    }
 
-        while (fileScan.hasNext()) {
-            st = fileScan.nextLine();
-            D.add(st);
-        }
-        fileScan.close();
+    public BoggleSolver(boolean useDLB) throws IOException {
+        //Read the dictionary
+        D = loadDictionary("dict8.txt", useDLB);
 
         // Parse input file of the Boggle board to create 2-d grid of characters
         Scanner inScan = new Scanner(System.in);
@@ -58,146 +75,288 @@ public class BoggleSolver {
 
         inScan.close();
 
-        theBoard = new char[4][4];
-
-        for (int i = 0; i < 4; i++) {
-            String rowString = fReader.nextLine();
-            for (int j = 0; j < rowString.length(); j++) {
-                theBoard[i][j] = Character.toLowerCase(rowString.charAt(j));
-            }
-        }
+        setBoard(readBoard(fReader));
         fReader.close();
 
         // Show user the board
-        for (int i = 0; i < 4; i++) {
-            for (int j = 0; j < 4; j++) {
-                System.out.print(theBoard[i][j] + " ");
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                System.out.print(theBoard[i * cols + j] + " ");
             }
             System.out.println();
         }
 
-        for (int i = 0; i < 4; i++) {
-            for (int j = 0; j < 4; j++) {
-                resetBoard();
-                currentSolution = new StringBuilder();
-                currentSolution.append(theBoard[i][j]);
-                theBoard[i][j] = Character.toUpperCase(theBoard[i][j]);
-                solve(i, j, 0);
+        findWords(System.out);
+    }
+
+    /**
+     * Makes a solver for one board that prints nothing until findWords is
+     * called. The board can be any size as long as every row is the same
+     * length. The dictionary is only read, so one can be shared by many
+     * solvers.
+     */
+    public BoggleSolver(DictInterface D, char[][] board) {
+        this.D = D;
+        setBoard(board);
+    }
+
+    //read a dictionary file into a CompactDLB or a sorted MyDictionary
+    public static DictInterface loadDictionary(String fileName, boolean useDLB) throws IOException {
+        Scanner fileScan = new Scanner(new FileInputStream(fileName));
+        String st;
+        DictInterface dictionary;
+        CompactDLB dlb = null;
+        if (useDLB) {
+            dictionary = dlb = new CompactDLB();
+        } else {
+            dictionary = new MyDictionary(true);
+        }
+
+        while (fileScan.hasNext()) {
+            st = fileScan.nextLine();
+            dictionary.add(st);
+        }
+        fileScan.close();
+        if (dlb != null) {
+            dlb.compact();
+        }
+        return dictionary;
+    }
+
+    //read every row of a board file (up to the first empty line), in lower case
+    public static char[][] readBoard(Scanner fReader) {
+        ArrayList<char[]> board = new ArrayList<char[]>();
+        while (fReader.hasNextLine()) {
+            String rowString = fReader.nextLine();
+            if (rowString.isEmpty()) {
+                break;
             }
+            board.add(rowString.toLowerCase().toCharArray());
         }
+        return board.toArray(new char[board.size()][]);
     }
-    //We have 8 directions:
-    // 0 => up left
-    // 1 => up
-    // 2 => up right
-    // 3 => right
-    // 4 => down right
-    // 5 => down
-    // 6 => down left
-    // 7 => left
 
-    private void solve(int row, int col, /*for debugging*/ int depth) {
-        //for debugging
-        // for(int i=0; i<depth; i++){
-        // 	System.out.print(" ");
-        // }
-        // System.out.println(row + ", " + col + " " + currentSolution.toString());
-        for (int direction = 0; direction < 8; direction++) {
-            if (isValid(row, col, direction)) {
-                currentSolution.append(nextChar(row, col, direction));
-                //mark the letter as used
-                theBoard[row][col] = Character.toUpperCase(theBoard[row][col]);
-                Coordinates nextCoords = nextCoordinates(row, col, direction);
-                int res = D.searchPrefix(currentSolution);
-
-                if (res == 1) { //prefix but not word
-                    solve(nextCoords.row, nextCoords.col, depth + 1);
-                }
-                if (res == 2) { //word but not prefix
-                    if (currentSolution.length() >= 3) {
-                        System.out.println(currentSolution.toString());
-                    }
-                }
+    //copy a board in and build its neighbour table
+    private void setBoard(char[][] board) {
+        rows = board.length;
+        cols = rows == 0 ? 0 : board[0].length;
+        theBoard = new char[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            if (board[i].length != cols) {
+                throw new IllegalArgumentException("Row " + i + " has " + board[i].length
+                        + " letters, expected " + cols);
+            }
+            for (int j = 0; j < cols; j++) {
+                theBoard[i * cols + j] = Character.toLowerCase(board[i][j]);
+            }
+        }
 
-                if (res == 3) { //word and prefix
-                    // by Injung: Write the code for the word and prefix
-                    if (currentSolution.length() >= 3) {
-                        System.out.println(currentSolution.toString());
+        neighbours = new int[rows * cols][];
+        int[] found = new int[8];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int count = 0;
+                for (int direction = 0; direction < 8; direction++) {
+                    int row = i + ROW_STEP[direction];
+                    int col = j + COL_STEP[direction];
+                    if (row >= 0 && row < rows && col >= 0 && col < cols) {
+                        found[count++] = row * cols + col;
                     }
-                    solve(nextCoords.row, nextCoords.col, depth + 1);
                 }
-
-                currentSolution.deleteCharAt(currentSolution.length() - 1);
-                theBoard[row][col] = Character.toLowerCase(theBoard[row][col]);
+                neighbours[i * cols + j] = Arrays.copyOf(found, count);
             }
         }
     }
 
-    //is the letter already used (upper case) or are we at an edge of the board?
-    private boolean isValid(int row, int col, int direction) {
-        Coordinates coords = nextCoordinates(row, col, direction);
-        boolean row_within_bounds = coords.row < 4 && coords.row >= 0;
-        boolean col_within_bounds = coords.col < 4 && coords.col >= 0;
-        if(row_within_bounds && col_within_bounds) {
-         return Character.isLowerCase(theBoard[coords.row][coords.col]);
+    //print every word (of length at least three) found on the board, once each
+    public void findWords(PrintStream out) {
+        WordSink sink = new WordSink(out);
+        findWords(sink);
+        sink.flush();
+    }
+
+    //get every word (of length at least three) found on the board, once each
+    //and in the order they were found
+    public List<String> findWords() {
+        WordSink sink = new WordSink();
+        findWords(sink);
+        return sink.words();
+    }
+
+    //send every word (of length at least three) found from every start cell
+    //to a sink, which drops the ones found more than once
+    public void findWords(WordSink sink) {
+        Search search = new Search(sink);
+        for (int cell = 0; cell < theBoard.length; cell++) {
+            search.start(cell);
         }
-        return false;
     }
 
-    private char nextChar(int row, int col, int direction) {
-        Coordinates coords = nextCoordinates(row, col, direction);
-        return theBoard[coords.row][coords.col];
+    //find the words using a fork-join pool of a number of threads
+    public Set<String> findWordsParallel(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return findWordsParallel(pool);
+        } finally {
+            pool.shutdown();
+        }
     }
 
-    private Coordinates nextCoordinates(int row, int col, int direction) {
-        Coordinates result = null;
-        switch (direction) {
-            case 0: //up left
-                result = new Coordinates(row - 1, col - 1);
-                break;
-            case 1: //up
-                result = new Coordinates(row - 1, col);
-                break;
-            case 2: //up right
-                result = new Coordinates(row - 1, col + 1);
-                break;
-            case 3: //right
-                result = new Coordinates(row, col + 1);
-                break;
-            case 4: //bottom right
-                result = new Coordinates(row + 1, col + 1);
-                break;
-            case 5: //bottom
-                result = new Coordinates(row + 1, col);
-                break;
-            case 6: //bottom left
-                result = new Coordinates(row + 1, col - 1);
-                break;
-            case 7: //left
-                result = new Coordinates(row, col - 1);
-                break;
+    //find the words with a fork-join task per start cell, or per first two
+    //cells when the board is too small to keep the pool busy otherwise. Each
+    //task searches with its own cursor, word and sink (the board and
+    //dictionary are only read) and adds its words to one concurrent set.
+    public Set<String> findWordsParallel(ForkJoinPool pool) {
+        //dictionaries that finish building on first use do so here instead
+        //of racing in the tasks
+        D.cursor();
+        Set<String> words = ConcurrentHashMap.newKeySet();
+        boolean split_pairs = theBoard.length < TASKS_PER_THREAD * pool.getParallelism();
+        ArrayList<StartTask> tasks = new ArrayList<StartTask>();
+        for (int cell = 0; cell < theBoard.length; cell++) {
+            if (split_pairs) {
+                for (int next : neighbours[cell]) {
+                    tasks.add(new StartTask(cell, next, words));
+                }
+            } else {
+                tasks.add(new StartTask(cell, -1, words));
+            }
         }
-        return result;
+        pool.invoke(new RecursiveAction() {
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        return words;
     }
 
-    //reset all characters to lower case
-    private void resetBoard() {
-        for (int i = 0; i < 4; i++) {
-            for (int j = 0; j < 4; j++) {
-                theBoard[i][j] = Character.toLowerCase(theBoard[i][j]);
+    //searches the words starting at one cell (or at one pair of cells)
+    private class StartTask extends RecursiveAction {
+
+        //tasks are never serialized, but RecursiveAction is Serializable
+        private static final long serialVersionUID = 1L;
+
+        private final int cell;
+        //the second cell of the words, -1 for every neighbour
+        private final int second;
+        private final Set<String> words;
+
+        private StartTask(int cell, int second, Set<String> words) {
+            this.cell = cell;
+            this.second = second;
+            this.words = words;
+        }
+
+        protected void compute() {
+            WordSink sink = new WordSink();
+            Search search = new Search(sink);
+            if (second < 0) {
+                search.start(cell);
+            } else {
+                search.start(cell, second);
             }
+            words.addAll(sink.words());
         }
     }
 
-    //inner class
-    private class Coordinates {
+    //the state of one search: the word so far, a cursor at that word in the
+    //dictionary and the sink for the words found. The board is only read.
+    private class Search {
 
-        int row;
-        int col;
+        private final DictCursor cursor;
+        private final StringBuilder currentSolution;
+        private final WordSink sink;
+        //cells used by the current word, for boards with more than 64 cells
+        //(smaller boards pass a long down the recursion instead)
+        private final long[] visited;
+
+        private Search(WordSink sink) {
+            this.sink = sink;
+            cursor = D.cursor();
+            currentSolution = new StringBuilder();
+            visited = theBoard.length > 64 ? new long[(theBoard.length + 63) >> 6] : null;
+        }
+
+        //search every word starting at a cell
+        private void start(int cell) {
+            currentSolution.append(theBoard[cell]);
+            if ((cursor.advance(theBoard[cell]) & 1) != 0) {
+                if (visited == null) {
+                    solve(cell, 1L << cell);
+                } else {
+                    visited[cell >> 6] |= 1L << cell;
+                    solve(cell);
+                    visited[cell >> 6] &= ~(1L << cell);
+                }
+            }
+            retract();
+        }
+
+        //search every word starting with two (neighbouring) cells
+        private void start(int cell, int second) {
+            currentSolution.append(theBoard[cell]);
+            if ((cursor.advance(theBoard[cell]) & 1) != 0) {
+                if ((extend(second) & 1) != 0) {
+                    if (visited == null) {
+                        solve(second, (1L << cell) | (1L << second));
+                    } else {
+                        visited[cell >> 6] |= 1L << cell;
+                        visited[second >> 6] |= 1L << second;
+                        solve(second);
+                        visited[cell >> 6] &= ~(1L << cell);
+                        visited[second >> 6] &= ~(1L << second);
+                    }
+                }
+                retract();
+            }
+            retract();
+        }
+
+        private void solve(int cell, long visited) {
+            for (int next : neighbours[cell]) {
+                //is the letter already used?
+                if ((visited & (1L << next)) == 0) {
+                    int res = extend(next);
+                    if ((res & 1) != 0) { //prefix (maybe also a word)
+                        solve(next, visited | (1L << next));
+                    }
+                    retract();
+                }
+            }
+        }
+
+        //same as above for boards with more than 64 cells, the bit for a cell
+        //is set while it is part of the word and cleared when the search
+        //backs out
+        private void solve(int cell) {
+            for (int next : neighbours[cell]) {
+                if ((visited[next >> 6] & (1L << next)) == 0) {
+                    int res = extend(next);
+                    if ((res & 1) != 0) {
+                        visited[next >> 6] |= 1L << next;
+                        solve(next);
+                        visited[next >> 6] &= ~(1L << next);
+                    }
+                    retract();
+                }
+            }
+        }
+
+        //add the letter of a cell to the word, report the word if it is one
+        //and return the searchPrefix result
+        private int extend(int next) {
+            currentSolution.append(theBoard[next]);
+            int res = cursor.advance(theBoard[next]);
+            if ((res & 2) != 0 && currentSolution.length() >= 3) { //word
+                sink.add(cursor.wordId(), currentSolution);
+            }
+            return res;
+        }
 
-        private Coordinates(int row, int col) {
-            this.row = row;
-            this.col = col;
+        //remove the last letter added to the word
+        private void retract() {
+            currentSolution.setLength(currentSolution.length() - 1);
+            cursor.retreat();
         }
     }
 }
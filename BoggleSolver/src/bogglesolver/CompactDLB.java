@@ -0,0 +1,284 @@
+package bogglesolver;
+
+/**
+ * @file CompactDLB.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief implements a DLB tree stored in parallel primitive arrays
+ **/
+import java.util.Arrays;
+
+/**
+ * @brief a pointer-free DLB tree
+ * @details stores the same child/brother structure as DLB but each node is
+ *  an index into parallel arrays instead of an object. Node 0 is the root
+ *  and never holds a value, its child is the first letter of every word.
+ *  After loading, compact() re-lays the nodes out so that every sibling list
+ *  is contiguous in memory (breadth-first order).
+ **/
+public class CompactDLB implements DictInterface {
+    //! The initial number of nodes allocated
+    private static final int INIT_CAPACITY = 1024;
+    //! How much to grow the arrays by when they are full
+    private static final int INCREASE_SIZE_RATIO = 2;
+    //! Marks a missing child or brother link
+    static final int NONE = -1;
+    //! Index of the root node
+    static final int ROOT = 0;
+
+    //! The value of each node
+    private char[] label;
+    //! Index of the first child of each node (NONE if there is none)
+    private int[] child;
+    //! Index of the next sibling of each node (NONE if there is none)
+    private int[] brother;
+    //! Bitset marking each node that ends a word
+    private long[] end;
+    //! The number of nodes in use
+    private int node_count;
+
+    /**
+     * @brief makes an empty tree containing only the root
+     **/
+    public CompactDLB() {
+        label = new char[INIT_CAPACITY];
+        child = new int[INIT_CAPACITY];
+        brother = new int[INIT_CAPACITY];
+        end = new long[(INIT_CAPACITY >> 6) + 1];
+        node_count = 0;
+        newNode((char) 0);
+    }
+
+    /**
+     * @brief inplements the add method of the Dictionary interface
+     * @param value the string to add to the dictionary
+     * @return true if inserted, false if not
+     **/
+    public boolean add(String value) {
+        if(value.length() == 0) {
+            return false;
+        }
+        int node = ROOT;
+        for(int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            // Walk the children looking for the character
+            int previous = NONE;
+            int next = child[node];
+            while(next != NONE && label[next] != c) {
+                previous = next;
+                next = brother[next];
+            }
+            // Append a new brother (or first child) if it isn't there
+            if(next == NONE) {
+                next = newNode(c);
+                if(previous == NONE) {
+                    child[node] = next;
+                } else {
+                    brother[previous] = next;
+                }
+            }
+            node = next;
+        }
+        end[node >> 6] |= 1L << node;
+        return true;
+    } /* add(String value) */
+
+    /**
+     * Implements a searchPrefix function from DictInterface
+     **/
+    public int searchPrefix(StringBuilder s) {
+        return searchPrefix(s, 0, s.length() - 1);
+    }
+
+    /**
+     * @brief implements the DLB search prefix as an index walk
+     * @param s the string to look up
+     * @param start the start index to look in the string builder for
+     * @param end the end index to look in the string builder for
+     * @return 0: if the string does not exist at all in the dictionary
+     *  1: if the string exists only as a prefix in the dictionary
+     *  2: if the string exists only as a word in the dictionary
+     *  3: if the string exists both as a word and a prefix in the dictionary
+     **/
+    public int searchPrefix(StringBuilder s, int start, int end) {
+        int node = ROOT;
+        for(int i = start; i <= end; ++i) {
+            node = findChild(node, s.charAt(i));
+            if(node == NONE) {
+                return 0;
+            }
+        }
+        return status(node);
+    } /* searchPrefix(StringBuilder s, int start, int end) */
+
+    /**
+     * @brief makes a cursor that walks the tree one node at a time
+     * @return a new cursor at the empty prefix
+     **/
+    public DictCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @brief a DictCursor that remembers the node index reached at each depth
+     **/
+    private class Cursor implements DictCursor {
+        //! The node matched at each depth, NONE if the prefix fell off the tree
+        private int[] nodes;
+        //! The current depth
+        private int depth;
+
+        /**
+         * @brief makes a cursor at the empty prefix
+         **/
+        Cursor() {
+            nodes = new int[16];
+            nodes[0] = ROOT;
+            depth = 0;
+        }
+
+        public int advance(char c) {
+            if(depth + 1 == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            int node = nodes[depth];
+            if(node != NONE) {
+                node = findChild(node, c);
+            }
+            nodes[++depth] = node;
+            if(node == NONE) {
+                return 0;
+            }
+            return status(node);
+        }
+
+        public void retreat() {
+            --depth;
+        }
+
+        public int wordId() {
+            int node = nodes[depth];
+            if(node == NONE || !isEnd(node)) {
+                return -1;
+            }
+            return node;
+        }
+    } /* Cursor */
+
+    /**
+     * @brief finds the child of a node holding a certain value
+     * @param node the parent node
+     * @param c the value to look for
+     * @return the index of the child or NONE if it does not exist
+     **/
+    int findChild(int node, char c) {
+        int next = child[node];
+        while(next != NONE && label[next] != c) {
+            next = brother[next];
+        }
+        return next;
+    }
+
+    /**
+     * @brief gets the searchPrefix result for a node
+     * @param node the node that was reached
+     * @return 1 if it has children, plus 2 if it ends a word
+     **/
+    int status(int node) {
+        int result = 0;
+        if(child[node] != NONE) {
+            result |= 1;
+        }
+        if((end[node >> 6] & (1L << node)) != 0) {
+            result |= 2;
+        }
+        return result;
+    }
+
+    /**
+     * @brief checks whether a node ends a word
+     * @param node the index of the node
+     * @return true if a word ends at the node
+     **/
+    boolean isEnd(int node) {
+        return (end[node >> 6] & (1L << node)) != 0;
+    }
+
+    /**
+     * @brief re-lays the nodes out in breadth-first order and trims the arrays
+     * @details every sibling list ends up in consecutive indexes so a lookup
+     *  scans neighbouring memory instead of hopping around the arrays.
+     **/
+    public void compact() {
+        char[] new_label = new char[node_count];
+        int[] new_child = new int[node_count];
+        int[] new_brother = new int[node_count];
+        long[] new_end = new long[(node_count >> 6) + 1];
+        // old index of the node that was placed at each new index
+        int[] placed = new int[node_count];
+
+        placed[ROOT] = ROOT;
+        int written = 1;
+        for(int read = 0; read < written; ++read) {
+            int old_node = placed[read];
+            new_label[read] = label[old_node];
+            new_brother[read] = NONE;
+            if((end[old_node >> 6] & (1L << old_node)) != 0) {
+                new_end[read >> 6] |= 1L << read;
+            }
+            // Place all of the children next to each other
+            int first = child[old_node];
+            if(first == NONE) {
+                new_child[read] = NONE;
+            } else {
+                new_child[read] = written;
+                for(int it = first; it != NONE; it = brother[it]) {
+                    placed[written++] = it;
+                }
+            }
+        }
+        // Link the brothers in their new positions
+        for(int i = 0; i < node_count; ++i) {
+            int first = new_child[i];
+            if(first != NONE) {
+                int last = first;
+                for(int it = brother[placed[first]]; it != NONE; it = brother[it]) {
+                    new_brother[last] = last + 1;
+                    ++last;
+                }
+            }
+        }
+
+        label = new_label;
+        child = new_child;
+        brother = new_brother;
+        end = new_end;
+    } /* compact() */
+
+    /**
+     * @brief allocates a new node at the end of the arrays
+     * @param value the value of the node
+     * @return the index of the new node
+     **/
+    private int newNode(char value) {
+        if(node_count == label.length) {
+            grow(label.length * INCREASE_SIZE_RATIO);
+        }
+        int node = node_count++;
+        label[node] = value;
+        child[node] = NONE;
+        brother[node] = NONE;
+        return node;
+    }
+
+    /**
+     * @brief grows the arrays to a new capacity
+     * @param new_capacity the number of nodes the arrays can hold
+     **/
+    private void grow(int new_capacity) {
+        label = Arrays.copyOf(label, new_capacity);
+        child = Arrays.copyOf(child, new_capacity);
+        brother = Arrays.copyOf(brother, new_capacity);
+        end = Arrays.copyOf(end, (new_capacity >> 6) + 1);
+    }
+} /* CompactDLB */
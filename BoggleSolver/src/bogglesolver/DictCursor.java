@@ -0,0 +1,44 @@
+package bogglesolver;
+
+/**
+ * @file DictCursor.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief an incremental prefix search into a DictInterface
+ **/
+
+/**
+ * @brief walks a dictionary one character at a time
+ * @details a cursor remembers where the current prefix ended up in the
+ *  dictionary so extending it by a character (or undoing the last character)
+ *  does not need to search the whole prefix again from the start. This makes
+ *  backtracking searches cost O(1) per step instead of O(length of prefix).
+ *  Every advance() must be matched by a retreat(), even when advance()
+ *  returned 0. A cursor is only valid until the dictionary is changed.
+ **/
+public interface DictCursor {
+    /**
+     * @brief appends a character to the current prefix
+     * @param c the character to append
+     * @return 0: if the new prefix does not exist at all in the dictionary
+     *  1: if the new prefix exists only as a prefix in the dictionary
+     *  2: if the new prefix exists only as a word in the dictionary
+     *  3: if the new prefix exists both as a word and a prefix in the dictionary
+     **/
+    public int advance(char c);
+
+    /**
+     * @brief removes the last character appended by advance()
+     **/
+    public void retreat();
+
+    /**
+     * @brief gets an id for the word the current prefix spells
+     * @details ids are small non-negative ints that are the same for every
+     *  cursor of a dictionary reaching the same word and different for
+     *  different words, so a BitSet of them can stand in for a set of the
+     *  words. Trees use the index of the word's last node.
+     * @return the id or -1 if the prefix isn't a word
+     **/
+    public int wordId();
+} /* DictCursor */
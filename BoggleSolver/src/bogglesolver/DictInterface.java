@@ -42,4 +42,11 @@ public interface DictInterface
 	 * @return
 	 */
 	public int searchPrefix(StringBuilder s, int start, int end);
+
+	/** Makes a cursor that searches this dictionary one character at a
+	 * time. Backtracking searches can advance() and retreat() the cursor
+	 * instead of searching the whole prefix again after every character.
+	 * @return a new cursor at the empty prefix
+	 */
+	public DictCursor cursor();
 }
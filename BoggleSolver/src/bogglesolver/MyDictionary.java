@@ -11,10 +11,25 @@ public class MyDictionary implements DictInterface
 {
 	// Store Strings in an ArrayList
 	private ArrayList<String> list;
+	// Whether to sort once before the first search and use binary search
+	// instead of keeping the list sorted while adding and scanning it
+	private boolean sortOnce;
+	// Whether the list is currently in sorted order
+	private boolean sorted;
 
 	public MyDictionary()
+	{
+		this(false);
+	}
+
+	// If sortOnce is true, add() just appends to the list and the list is
+	// sorted a single time before the first search.  Searches are then
+	// done with a binary search so each one is O(log N) instead of O(N).
+	public MyDictionary(boolean sortOnce)
 	{
 		list = new ArrayList<String>();
+		this.sortOnce = sortOnce;
+		sorted = true;
 	}
 
 	// Add new String to end of list.  If String should come before
@@ -24,7 +39,11 @@ public class MyDictionary implements DictInterface
 	public boolean add(String s)
 	{
 		boolean ans = list.add(s);
-		if (list.size() > 1)
+		if (sortOnce)
+		{
+			sorted = false;
+		}
+		else if (list.size() > 1)
 		{
 			String prevLast = list.get(list.size()-2);
 			if (s.compareTo(prevLast) < 0)
@@ -42,6 +61,9 @@ public class MyDictionary implements DictInterface
 
 	public int searchPrefix(StringBuilder s, int start, int end)
 	{
+		if (sortOnce)
+			return binarySearchPrefix(s, start, end);
+
 		int status = 0;
 		boolean doneIn, doneOut, currTest, prefix, word;
 		String curr;
@@ -100,4 +122,157 @@ public class MyDictionary implements DictInterface
 		else if (prefix) return 1;
 		else return 0;
 	}
+
+	// Same results as the linear search above, but finds where the key
+	// would go in the sorted list with a binary search.  Any String equal
+	// to the key will be there, and right after those will be the first
+	// String that has the key as a prefix (if there is one).
+	private int binarySearchPrefix(StringBuilder s, int start, int end)
+	{
+		ensureSorted();
+		int length = end - start + 1;
+		int lo = 0;
+		int hi = list.size();
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (compare(list.get(mid), s, start, length) < 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+
+		boolean word = false;
+		boolean prefix = false;
+		int i = lo;
+		while (i < list.size() && list.get(i).length() == length
+				&& compare(list.get(i), s, start, length) == 0)
+		{
+			word = true;
+			i++;
+		}
+		if (i < list.size() && list.get(i).length() > length
+				&& compare(list.get(i), s, start, length) == 0)
+		{
+			prefix = true;
+		}
+
+		if (prefix && word) return 3;
+		else if (word) return 2;
+		else if (prefix) return 1;
+		else return 0;
+	}
+
+	// Compare the first length characters of curr to the key (the
+	// characters of s starting at start).  Returns 0 if curr starts with
+	// the key, otherwise the same sign as String.compareTo would.
+	private static int compare(String curr, StringBuilder s, int start, int length)
+	{
+		int n = Math.min(curr.length(), length);
+		for (int j = 0; j < n; j++)
+		{
+			char a = curr.charAt(j);
+			char b = s.charAt(start + j);
+			if (a != b)
+				return a - b;
+		}
+		if (curr.length() < length)
+			return -1;
+		return 0;
+	}
+
+	// Sort the list if anything has been added since it was last sorted
+	private void ensureSorted()
+	{
+		if (!sorted)
+		{
+			Collections.sort(list);
+			sorted = true;
+		}
+	}
+
+	// Make a cursor that narrows down the range of the (sorted) list
+	// that starts with the current prefix one character at a time.
+	public DictCursor cursor()
+	{
+		return new Cursor();
+	}
+
+	// Remembers, for each depth, the range [lo, hi) of the list whose
+	// strings start with the prefix up to that depth.  Since the list is
+	// sorted, the strings matching one more character are a smaller range
+	// inside that one and can be found with two binary searches.
+	private class Cursor implements DictCursor
+	{
+		private int[] lo;
+		private int[] hi;
+		private int depth;
+
+		private Cursor()
+		{
+			lo = new int[16];
+			hi = new int[16];
+			ensureSorted();
+			depth = 0;
+			lo[0] = 0;
+			hi[0] = list.size();
+		}
+
+		public int advance(char c)
+		{
+			if (depth + 1 == lo.length)
+			{
+				lo = Arrays.copyOf(lo, lo.length * 2);
+				hi = Arrays.copyOf(hi, hi.length * 2);
+			}
+			int first = firstAtLeast(lo[depth], hi[depth], depth, c);
+			int last = firstAtLeast(first, hi[depth], depth, (char) (c + 1));
+			if (c == Character.MAX_VALUE)
+				last = hi[depth];
+			depth++;
+			lo[depth] = first;
+			hi[depth] = last;
+
+			if (first == last) return 0;
+			// A string that is exactly the prefix sorts before any
+			// longer string with the same prefix
+			boolean word = list.get(first).length() == depth;
+			boolean prefix = list.get(last - 1).length() > depth;
+			if (prefix && word) return 3;
+			else if (word) return 2;
+			else return 1;
+		}
+
+		public void retreat()
+		{
+			depth--;
+		}
+
+		// The first string of the range is the word if there is one,
+		// and its index in the list is the word's id
+		public int wordId()
+		{
+			if (lo[depth] < hi[depth] && list.get(lo[depth]).length() == depth)
+				return lo[depth];
+			return -1;
+		}
+
+		// Find the first index in [from, to) whose string has a
+		// character at position pos that is at least c.  Every string in
+		// the range shares the first pos characters, and strings that end
+		// before pos sort first.
+		private int firstAtLeast(int from, int to, int pos, char c)
+		{
+			while (from < to)
+			{
+				int mid = (from + to) >>> 1;
+				String curr = list.get(mid);
+				if (curr.length() <= pos || curr.charAt(pos) < c)
+					from = mid + 1;
+				else
+					to = mid;
+			}
+			return from;
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package bogglesolver;
+
+/**
+ * @file WordSink.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief collects the unique words found by a search
+ **/
+import java.io.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * @brief receives every word a search finds and keeps each one only once
+ * @details the same word is usually reachable by several paths on a board,
+ *  only the first time it is found gets through. Words are told apart by the
+ *  id from DictCursor.wordId() (a bit in a BitSet, so checking a word costs
+ *  no allocation) and by their text when the dictionary has no ids.
+ *
+ *  Each new word is kept in a list (see words() and stream()), handed to an
+ *  optional callback, and/or appended to a buffer that is written to an
+ *  output stream in batches instead of once per word.
+ **/
+public class WordSink {
+    //! Number of characters buffered before they are written out
+    private static final int BATCH_CHARS = 8192;
+
+    //! Ids of the words seen so far
+    private final BitSet seen_ids;
+    //! Words seen so far that had no id
+    private final HashSet<String> seen_words;
+    //! Every new word in the order it was found, null if not kept
+    private final ArrayList<String> words;
+    //! Called with every new word, null if there is none
+    private final Consumer<String> callback;
+    //! Where buffered words are written, null if there is none
+    private final PrintStream out;
+    //! The words waiting to be written to out, one per line
+    private final StringBuilder buffer;
+
+    /**
+     * @brief makes a sink that keeps the unique words
+     **/
+    public WordSink() {
+        this(true, null, null);
+    }
+
+    /**
+     * @brief makes a sink that passes each unique word to a callback
+     * @param callback called once with every new word
+     **/
+    public WordSink(Consumer<String> callback) {
+        this(false, callback, null);
+    }
+
+    /**
+     * @brief makes a sink that prints each unique word on its own line
+     * @details output is buffered, call flush() once the search is done
+     * @param out where to print the words
+     **/
+    public WordSink(PrintStream out) {
+        this(false, null, out);
+    }
+
+    /**
+     * @brief makes a sink
+     * @param keep whether to keep the words for words() and stream()
+     * @param callback called once with every new word, may be null
+     * @param out where to print the words, may be null
+     **/
+    public WordSink(boolean keep, Consumer<String> callback, PrintStream out) {
+        seen_ids = new BitSet();
+        seen_words = new HashSet<String>();
+        words = keep ? new ArrayList<String>() : null;
+        this.callback = callback;
+        this.out = out;
+        buffer = out == null ? null : new StringBuilder(BATCH_CHARS + 64);
+    }
+
+    /**
+     * @brief adds a word found by a search
+     * @param id the word's id from DictCursor.wordId(), negative if none
+     * @param word the text of the word (only copied if it is new)
+     * @return true if this is the first time the word was found
+     **/
+    public boolean add(int id, CharSequence word) {
+        String text;
+        if(id >= 0) {
+            if(seen_ids.get(id)) {
+                return false;
+            }
+            seen_ids.set(id);
+            text = word.toString();
+        } else {
+            text = word.toString();
+            if(!seen_words.add(text)) {
+                return false;
+            }
+        }
+
+        if(words != null) {
+            words.add(text);
+        }
+        if(callback != null) {
+            callback.accept(text);
+        }
+        if(buffer != null) {
+            buffer.append(text).append(System.lineSeparator());
+            if(buffer.length() >= BATCH_CHARS) {
+                flush();
+            }
+        }
+        return true;
+    } /* add(int id, CharSequence word) */
+
+    /**
+     * @brief writes out any buffered words
+     **/
+    public void flush() {
+        if(buffer != null && buffer.length() > 0) {
+            out.append(buffer);
+            out.flush();
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * @brief gets the number of unique words found
+     * @return the word count
+     **/
+    public int size() {
+        return seen_ids.cardinality() + seen_words.size();
+    }
+
+    /**
+     * @brief gets the unique words in the order they were found
+     * @return an unmodifiable view of the words (empty if they weren't kept)
+     **/
+    public List<String> words() {
+        if(words == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * @brief streams the unique words in the order they were found
+     * @return a stream of the words (empty if they weren't kept)
+     **/
+    public Stream<String> stream() {
+        return words().stream();
+    }
+} /* WordSink */
@@ -0,0 +1,133 @@
+/**
+ * @file Benchmark.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief a small warmup/measure harness shared by the benchmarks
+ **/
+import java.lang.management.ManagementFactory;
+
+/**
+ * @brief times an operation and measures how much it allocates
+ * @details runs a round of the operation a number of untimed times (so the
+ *  JIT has compiled everything) then reports the throughput, the average time
+ *  per operation and the bytes allocated per operation over the measured
+ *  rounds. Allocation is read from the current thread's allocation counter
+ *  (the same number JMH's gc profiler reports as gc.alloc.rate.norm) so the
+ *  operation must run on the calling thread.
+ **/
+public class Benchmark {
+    //! Number of untimed rounds run before measuring
+    public static final int WARMUP_ROUNDS = 10;
+    //! Number of rounds that are timed
+    public static final int MEASURE_ROUNDS = 20;
+
+    //! Used to read the allocation counter, null if the JVM can't
+    private static final com.sun.management.ThreadMXBean threads = allocationCounter();
+    //! Bytes allocated per operation by the last run(), -1 if unknown
+    private static double last_bytes_per_op = -1;
+
+    /**
+     * @brief a single round of a benchmark
+     **/
+    public interface Round {
+        /**
+         * @brief runs the operation a fixed number of times
+         * @return a checksum of the results so the work can't be optimized away
+         **/
+        long run();
+    }
+
+    /**
+     * @brief prints the header for the lines run() prints
+     **/
+    public static void header() {
+        System.out.printf("%-36s %14s %12s %12s %12s%n",
+                          "benchmark", "ops/s", "ns/op", "B/op", "MB/s alloc");
+    }
+
+    /**
+     * @brief warms up then times a benchmark and prints the result
+     * @param name the name to print for the benchmark
+     * @param operations the number of operations done in one round
+     * @param round the benchmark to run
+     * @return the checksum of every round
+     **/
+    public static long run(String name, int operations, Round round) {
+        return run(name, operations, WARMUP_ROUNDS, MEASURE_ROUNDS, round);
+    }
+
+    /**
+     * @brief warms up then times a benchmark and prints the result
+     * @param name the name to print for the benchmark
+     * @param operations the number of operations done in one round
+     * @param warmup_rounds the number of untimed rounds
+     * @param measure_rounds the number of timed rounds
+     * @param round the benchmark to run
+     * @return the checksum of every round
+     **/
+    public static long run(String name, int operations, int warmup_rounds, int measure_rounds, Round round) {
+        long checksum = 0;
+        for(int i = 0; i < warmup_rounds; ++i) {
+            checksum += round.run();
+        }
+        long start_bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for(int i = 0; i < measure_rounds; ++i) {
+            checksum += round.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - start_bytes;
+
+        long total_operations = (long) measure_rounds * operations;
+        double ns_per_op = (double) elapsed / total_operations;
+        double ops_per_second = total_operations * 1e9 / elapsed;
+        last_bytes_per_op = start_bytes < 0 ? -1 : (double) allocated / total_operations;
+        if(start_bytes < 0) {
+            System.out.printf("%-36s %14.1f %12.2f %12s %12s   (checksum %d)%n",
+                              name, ops_per_second, ns_per_op, "n/a", "n/a", checksum);
+        } else {
+            double bytes_per_op = (double) allocated / total_operations;
+            double mb_per_second = allocated * 1e9 / elapsed / (1024 * 1024);
+            System.out.printf("%-36s %14.1f %12.2f %12.1f %12.1f   (checksum %d)%n",
+                              name, ops_per_second, ns_per_op, bytes_per_op, mb_per_second, checksum);
+        }
+        return checksum;
+    } /* run(String name, int operations, int warmup_rounds, int measure_rounds, Round round) */
+
+    /**
+     * @brief gets how much the last benchmark allocated
+     * @return the bytes per operation of the last run() or -1 if the JVM
+     *  doesn't track allocation
+     **/
+    public static double lastBytesPerOp() {
+        return last_bytes_per_op;
+    }
+
+    /**
+     * @brief gets the number of bytes the current thread has allocated
+     * @return the byte count or -1 if the JVM doesn't track it
+     **/
+    private static long allocatedBytes() {
+        if(threads == null) {
+            return -1;
+        }
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @brief finds the JVM's per thread allocation counter
+     * @return the bean to read it from or null if it isn't available
+     **/
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) bean;
+        if(!counter.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        counter.setThreadAllocatedMemoryEnabled(true);
+        return counter;
+    }
+} /* Benchmark */
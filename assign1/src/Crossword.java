@@ -21,6 +21,10 @@ public class Crossword {
     static int verbosity = 0;
     //! Number of solutions found
     static int solutions = 0;
+    //! Reused to hold the horizontal word being tested
+    static char[] horizontal_buffer;
+    //! Reused to hold the vertical word being tested
+    static char[] vertical_buffer;
 
     /**
      * @brief receives commmand line arguments, loads the dictionary and
@@ -34,7 +38,7 @@ public class Crossword {
         }
 
         // Load in the dictionary.
-        dictionary = new MyDictionary();
+        dictionary = new MyDictionary(true);
         Scanner dictionary_scan = new Scanner(new FileInputStream(args[0]));
         while (dictionary_scan.hasNext()) {
             String next_line = dictionary_scan.nextLine();
@@ -43,6 +47,8 @@ public class Crossword {
 
         // Create the crossword
         crossword = new CrosswordState(args[1]);
+        horizontal_buffer = new char[crossword.length()];
+        vertical_buffer = new char[crossword.length()];
 
         // Set the verbosity
         if(args.length == 4) {
@@ -76,9 +82,11 @@ public class Crossword {
         // Whether or not the next parts are in this word or we are completing the word now
         boolean can_use_next_horiz = crossword.isWord(row, column + 1);
         boolean can_use_next_vert = crossword.isWord(row + 1, column);
-        // Gets the validity for that string
-        int horiz_validity = dictionary.searchPrefix(crossword.getHorizontal(row, column));
-        int vert_validity = dictionary.searchPrefix(crossword.getVertical(row, column));
+        // Gets the validity for that string (using the buffers so nothing is allocated)
+        int horiz_length = crossword.getHorizontal(row, column, horizontal_buffer);
+        int vert_length = crossword.getVertical(row, column, vertical_buffer);
+        int horiz_validity = dictionary.searchPrefix(horizontal_buffer, 0, horiz_length - 1);
+        int vert_validity = dictionary.searchPrefix(vertical_buffer, 0, vert_length - 1);
 
         // Default to no solution first
         if(horiz_validity > 0 && vert_validity > 0) {
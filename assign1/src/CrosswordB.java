@@ -21,6 +21,16 @@ public class CrosswordB {
     static int verbosity = 0;
     //! Number of solutions found
     static long solutions = 0;
+    //! Number of threads to count with (more than 1 uses CrosswordTask)
+    static int threads = 1;
+    //! Cursor for each horizontal word, stored at the cell the word starts at
+    static DictCursor[][] horizontal_cursors;
+    //! Cursor for each vertical word, stored at the cell the word starts at
+    static DictCursor[][] vertical_cursors;
+    //! The column the horizontal word containing each cell starts at
+    static int[][] horizontal_start;
+    //! The row the vertical word containing each cell starts at
+    static int[][] vertical_start;
 
     /**
      * @brief receives commmand line arguments, loads the dictionary and
@@ -29,30 +39,35 @@ public class CrosswordB {
     public static void main(String[] args) throws IOException {
         if(args.length < 3) {
             System.out.println("Insufficient arguments provided.");
-            System.out.println("Please provide the following: <dictionary_method> <dictionary> <crossword file> <verbosity>");
+            System.out.println("Please provide the following: <dictionary_method> <dictionary> <crossword file> <verbosity> <threads>");
             return;
         }
 
         // Load in the dictionary.
-        if(!args[0].equals("DLB")) {
-            dictionary = new MyDictionary();
-        } else {
-            dictionary = new DLB();
-        }
-
-        Scanner dictionary_scan = new Scanner(new FileInputStream(args[1]));
-        while (dictionary_scan.hasNext()) {
-            String next_line = dictionary_scan.nextLine();
-            dictionary.add(next_line);
-        }
+        dictionary = loadDictionary(args[0], args[1]);
 
         // Create the crossword
         crossword = new CrosswordState(args[2]);
+        setupCursors();
 
         // Set the verbosity
-        if(args.length == 4) {
+        if(args.length >= 4) {
             verbosity = Integer.parseInt(args[3]);
         }
+        // Set the number of threads ("max" to use every core)
+        if(args.length >= 5) {
+            if(args[4].equals("max")) {
+                threads = Runtime.getRuntime().availableProcessors();
+            } else {
+                threads = Integer.parseInt(args[4]);
+            }
+        }
+
+        // The parallel count only counts, it can't print boards or progress
+        if(threads > 1 && verbosity > 0) {
+            System.out.println("Verbosity above 0 needs 1 thread, got " + threads + " threads.");
+            return;
+        }
 
         if(verbosity > 0) {
             System.out.println("Start Crossword:");
@@ -60,7 +75,11 @@ public class CrosswordB {
         }
 
         // Execute the solve
-        solve(0, 0);
+        if(threads > 1) {
+            solutions = CrosswordTask.count(dictionary, crossword, threads);
+        } else {
+            solve(0, 0);
+        }
         // Only print the number of solutions if verbosity is up or not finding
         // the first solution
         if(verbosity > 0) {
@@ -71,8 +90,94 @@ public class CrosswordB {
         }
     } /* main(String[] args) */
 
+    /**
+     * @brief makes a dictionary of a certain type and loads it from a file
+     * @param method DLB, CDLB (CompactDLB), DAWG, MAPPED (the file is a
+     *  snapshot written by DictSnapshot) or anything else for a MyDictionary
+     * @param filename the file to load the dictionary from
+     * @return the loaded dictionary
+     **/
+    public static DictInterface loadDictionary(String method, String filename) throws IOException {
+        if(method.equals("MAPPED")) {
+            return new MappedDictionary(filename);
+        }
+        if(method.equals("DAWG")) {
+            // The words have to be added to a DAWG in sorted order
+            ArrayList<String> words = new ArrayList<String>();
+            Scanner dictionary_scan = new Scanner(new FileInputStream(filename));
+            while (dictionary_scan.hasNext()) {
+                words.add(dictionary_scan.nextLine());
+            }
+            dictionary_scan.close();
+            Collections.sort(words);
+            DAWG dawg = new DAWG();
+            for(String word : words) {
+                dawg.add(word);
+            }
+            dawg.freeze();
+            return dawg;
+        }
+
+        DictInterface result;
+        CompactDLB compact_dlb = null;
+        if(method.equals("DLB")) {
+            result = new DLB();
+        } else if(method.equals("CDLB")) {
+            result = compact_dlb = new CompactDLB();
+        } else {
+            result = new MyDictionary(true);
+        }
+
+        Scanner dictionary_scan = new Scanner(new FileInputStream(filename));
+        while (dictionary_scan.hasNext()) {
+            String next_line = dictionary_scan.nextLine();
+            result.add(next_line);
+        }
+        dictionary_scan.close();
+        if(compact_dlb != null) {
+            compact_dlb.compact();
+        }
+        return result;
+    } /* loadDictionary(String method, String filename) */
+
+    /**
+     * @brief makes a dictionary cursor for every horizontal and vertical word
+     * @details the '-' cells never change so the words (and the cell each
+     *  one starts at) can be found once before solving.
+     **/
+    public static void setupCursors() {
+        int dimension = crossword.length();
+        horizontal_cursors = new DictCursor[dimension][dimension];
+        vertical_cursors = new DictCursor[dimension][dimension];
+        horizontal_start = new int[dimension][dimension];
+        vertical_start = new int[dimension][dimension];
+        for(int row = 0; row < dimension; ++row) {
+            for(int column = 0; column < dimension; ++column) {
+                if(!crossword.isWord(row, column)) {
+                    continue;
+                }
+                // Continue the word to the left or start a new one here
+                if(crossword.isWord(row, column - 1)) {
+                    horizontal_start[row][column] = horizontal_start[row][column - 1];
+                } else {
+                    horizontal_start[row][column] = column;
+                    horizontal_cursors[row][column] = dictionary.cursor();
+                }
+                // Continue the word above or start a new one here
+                if(crossword.isWord(row - 1, column)) {
+                    vertical_start[row][column] = vertical_start[row - 1][column];
+                } else {
+                    vertical_start[row][column] = row;
+                    vertical_cursors[row][column] = dictionary.cursor();
+                }
+            }
+        }
+    } /* setupCursors() */
+
     /**
      * @brief tests a specific cell of the current crossword state
+     * @details advances the cursors of the words the cell is in, so every call
+     *  must be followed by a call to untest(row, column)
      * @param[in] row the row number to check
      * @param[in] column the column number to check
      * @returns true if it is valid, false if not
@@ -81,9 +186,10 @@ public class CrosswordB {
         // Whether or not the next parts are in this word or we are completing the word now
         boolean can_use_next_horiz = crossword.isWord(row, column + 1);
         boolean can_use_next_vert = crossword.isWord(row + 1, column);
-        // Gets the validity for that string
-        int horiz_validity = dictionary.searchPrefix(crossword.getHorizontal(row, column));
-        int vert_validity = dictionary.searchPrefix(crossword.getVertical(row, column));
+        // Gets the validity for that string by extending the word cursors
+        char value = crossword.get(row, column);
+        int horiz_validity = horizontal_cursors[row][horizontal_start[row][column]].advance(value);
+        int vert_validity = vertical_cursors[vertical_start[row][column]][column].advance(value);
 
         // Default to no solution first
         if(horiz_validity > 0 && vert_validity > 0) {
@@ -110,6 +216,16 @@ public class CrosswordB {
         return false;
     } /* test(int row, int column) */
 
+    /**
+     * @brief undoes the cursor advances made by test(row, column)
+     * @param[in] row the row number that was tested
+     * @param[in] column the column number that was tested
+     **/
+    public static void untest(int row, int column) {
+        horizontal_cursors[row][horizontal_start[row][column]].retreat();
+        vertical_cursors[vertical_start[row][column]][column].retreat();
+    } /* untest(int row, int column) */
+
     /**
      * @brief finds the next cell to solve (and calls solve) or marks a successs
      * @param[in] row is the current row
@@ -156,6 +272,7 @@ public class CrosswordB {
                     if(test(row, column)) {
                         solve_next(row, column);
                     }
+                    untest(row, column);
                     crossword.unset(row, column);
                 }
             } else {
@@ -163,6 +280,7 @@ public class CrosswordB {
                 if(test(row, column)) {
                     solve_next(row, column);
                 }
+                untest(row, column);
             }
         } else {
             // It's not a part of the word so let's just solve the next one...
@@ -56,6 +56,16 @@ public class CrosswordState {
         }
     }
 
+    /**
+     * @brief copies another crossword state
+     * @param other the state to copy, later changes to either don't affect
+     *  the other
+     **/
+    public CrosswordState(CrosswordState other) {
+        dimension = other.dimension;
+        grid = other.snapshot();
+    }
+
     /**
      * @brief sees whether or not a cell is part of a word or is filled in
      * @param row the row to check
@@ -89,6 +99,16 @@ public class CrosswordState {
         return false;
     }
 
+    /**
+     * @brief gets the value of a certain cell
+     * @param row the row to get
+     * @param column the column to get
+     * @return the lower-case value of the cell
+     **/
+    public char get(int row, int column) {
+        return Character.toLowerCase(grid[row][column]);
+    }
+
     /**
      * @brief sets the state of a certain cell
      * @param row the row to set
@@ -154,6 +174,48 @@ public class CrosswordState {
         return result;
     }
 
+    /**
+     * @brief gets the horizontal string this cell is in without allocating
+     * @details same characters as getHorizontal(row, column), written to
+     *  the start of a buffer owned by the caller
+     * @param row the row to check
+     * @param column the column to check
+     * @param buffer where to write the values, at least length() long
+     * @return the number of characters written
+     **/
+    public int getHorizontal(int row, int column, char[] buffer) {
+        int start_horiz = column;
+        while(start_horiz - 1 >= 0 && grid[row][start_horiz - 1] != '-') {
+            --start_horiz;
+        }
+        int written = 0;
+        for(/* Using start_horiz */; start_horiz <= column && grid[row][start_horiz] != '-' && grid[row][start_horiz] != '+'; ++start_horiz) {
+            buffer[written++] = Character.toLowerCase(grid[row][start_horiz]);
+        }
+        return written;
+    }
+
+    /**
+     * @brief gets the vertical string this cell is in without allocating
+     * @details same characters as getVertical(row, column), written to
+     *  the start of a buffer owned by the caller
+     * @param row the row to check
+     * @param column the column to check
+     * @param buffer where to write the values, at least length() long
+     * @return the number of characters written
+     **/
+    public int getVertical(int row, int column, char[] buffer) {
+        int start_vert = row;
+        while(start_vert - 1 >= 0 && grid[start_vert - 1][column] != '-') {
+            --start_vert;
+        }
+        int written = 0;
+        for(/* Using start_vert */; start_vert <= row && grid[start_vert][column] != '-' && grid[start_vert][column] != '+'; ++start_vert) {
+            buffer[written++] = Character.toLowerCase(grid[start_vert][column]);
+        }
+        return written;
+    }
+
     /**
      * @brief made to get a snapshot of the state of the board to store it
      * @return a char array reflecting the state of the board
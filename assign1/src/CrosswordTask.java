@@ -0,0 +1,248 @@
+/**
+ * @file CrosswordTask.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief counts crossword solutions in parallel with a ForkJoinPool
+ **/
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @brief counts the solutions of one branch of the crossword search tree
+ * @details does the same row-major search as CrosswordB.solve but on its own
+ *  copy of the crossword with its own dictionary cursors. For the first few
+ *  changeable cells every valid letter becomes a subtask instead of being
+ *  searched in place, so the branches are spread across the pool's threads.
+ *  Every task adds the solutions it finds to one shared LongAdder.
+ **/
+public class CrosswordTask extends RecursiveAction {
+    //! Tasks are never serialized, but RecursiveAction is Serializable
+    private static final long serialVersionUID = 1L;
+    //! The number of changeable cells that are split into subtasks
+    public static final int SPLIT_CELLS = 2;
+
+    //! The Dictionary to query (only read from)
+    private final DictInterface dictionary;
+    //! This task's copy of the crossword state
+    private final CrosswordState crossword;
+    //! Where every task adds the solutions it finds
+    private final LongAdder solutions;
+    //! The column the horizontal word containing each cell starts at (shared)
+    private final int[][] horizontal_start;
+    //! The row the vertical word containing each cell starts at (shared)
+    private final int[][] vertical_start;
+    //! The cell to solve first
+    private final int start_row;
+    private final int start_column;
+    //! The number of changeable cells left to split into subtasks
+    private final int splits_left;
+    //! Cursor for each horizontal word, made when the task runs
+    private DictCursor[][] horizontal_cursors;
+    //! Cursor for each vertical word, made when the task runs
+    private DictCursor[][] vertical_cursors;
+
+    /**
+     * @brief makes a task to count the solutions from a certain cell onwards
+     * @param dictionary the dictionary to query
+     * @param crossword the crossword with every cell before the start filled
+     * @param solutions where to add the solutions found
+     * @param horizontal_start the start column of each cell's horizontal word
+     * @param vertical_start the start row of each cell's vertical word
+     * @param start_row the row of the cell to solve first
+     * @param start_column the column of the cell to solve first
+     * @param splits_left the number of changeable cells to split
+     **/
+    private CrosswordTask(DictInterface dictionary, CrosswordState crossword, LongAdder solutions,
+                          int[][] horizontal_start, int[][] vertical_start,
+                          int start_row, int start_column, int splits_left) {
+        this.dictionary = dictionary;
+        this.crossword = crossword;
+        this.solutions = solutions;
+        this.horizontal_start = horizontal_start;
+        this.vertical_start = vertical_start;
+        this.start_row = start_row;
+        this.start_column = start_column;
+        this.splits_left = splits_left;
+    }
+
+    /**
+     * @brief counts every solution of a crossword
+     * @param dictionary the dictionary to query, it must not be changed while
+     *  counting
+     * @param crossword the crossword to solve (not changed)
+     * @param threads the number of worker threads to use
+     * @return the number of solutions
+     **/
+    public static long count(DictInterface dictionary, CrosswordState crossword, int threads) {
+        int dimension = crossword.length();
+        int[][] horizontal_start = new int[dimension][dimension];
+        int[][] vertical_start = new int[dimension][dimension];
+        for(int row = 0; row < dimension; ++row) {
+            for(int column = 0; column < dimension; ++column) {
+                if(crossword.isWord(row, column - 1)) {
+                    horizontal_start[row][column] = horizontal_start[row][column - 1];
+                } else {
+                    horizontal_start[row][column] = column;
+                }
+                if(crossword.isWord(row - 1, column)) {
+                    vertical_start[row][column] = vertical_start[row - 1][column];
+                } else {
+                    vertical_start[row][column] = row;
+                }
+            }
+        }
+        // Dictionaries that finish building on first use (MyDictionary, DAWG)
+        //  do so here instead of racing in the workers
+        dictionary.cursor();
+
+        LongAdder solutions = new LongAdder();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new CrosswordTask(dictionary, new CrosswordState(crossword), solutions,
+                                          horizontal_start, vertical_start, 0, 0, SPLIT_CELLS));
+        } finally {
+            pool.shutdown();
+        }
+        return solutions.sum();
+    } /* count(DictInterface dictionary, CrosswordState crossword, int threads) */
+
+    /**
+     * @brief makes the cursors for this task and runs the search
+     **/
+    @Override
+    protected void compute() {
+        int dimension = crossword.length();
+        horizontal_cursors = new DictCursor[dimension][dimension];
+        vertical_cursors = new DictCursor[dimension][dimension];
+        for(int row = 0; row < dimension; ++row) {
+            for(int column = 0; column < dimension; ++column) {
+                if(!crossword.isWord(row, column)) {
+                    continue;
+                }
+                if(horizontal_start[row][column] == column) {
+                    horizontal_cursors[row][column] = dictionary.cursor();
+                }
+                if(vertical_start[row][column] == row) {
+                    vertical_cursors[row][column] = dictionary.cursor();
+                }
+                // Bring the cursors up to date with the cells already filled
+                if(row < start_row || (row == start_row && column < start_column)) {
+                    test(row, column);
+                }
+            }
+        }
+        solve(start_row, start_column);
+    } /* compute() */
+
+    /**
+     * @brief tests a specific cell of the current crossword state
+     * @details same checks as CrosswordB.test, every call must be followed by
+     *  a call to untest(row, column)
+     * @param row the row number to check
+     * @param column the column number to check
+     * @return true if it is valid, false if not
+     **/
+    private boolean test(int row, int column) {
+        boolean can_use_next_horiz = crossword.isWord(row, column + 1);
+        boolean can_use_next_vert = crossword.isWord(row + 1, column);
+        char value = crossword.get(row, column);
+        int horiz_validity = horizontal_cursors[row][horizontal_start[row][column]].advance(value);
+        int vert_validity = vertical_cursors[vertical_start[row][column]][column].advance(value);
+
+        // Continuing a word needs a prefix (1 or 3), ending one needs a word (2 or 3)
+        if(can_use_next_horiz ? (horiz_validity & 1) == 0 : horiz_validity < 2) {
+            return false;
+        }
+        if(can_use_next_vert ? (vert_validity & 1) == 0 : vert_validity < 2) {
+            return false;
+        }
+        return true;
+    } /* test(int row, int column) */
+
+    /**
+     * @brief undoes the cursor advances made by test(row, column)
+     * @param row the row number that was tested
+     * @param column the column number that was tested
+     **/
+    private void untest(int row, int column) {
+        horizontal_cursors[row][horizontal_start[row][column]].retreat();
+        vertical_cursors[vertical_start[row][column]][column].retreat();
+    } /* untest(int row, int column) */
+
+    /**
+     * @brief finds the next cell to solve (and calls solve) or counts a success
+     * @param row is the current row
+     * @param column is the current column
+     **/
+    private void solve_next(int row, int column) {
+        if(column < crossword.length() - 1) {
+            solve(row, column + 1);
+        } else if(row < crossword.length() - 1) {
+            solve(row + 1, 0);
+        } else {
+            solutions.increment();
+        }
+    } /* solve_next(int row, int column) */
+
+    /**
+     * @brief solves for a certain row and column
+     * @param row is the row to solve
+     * @param column is the column to solve
+     **/
+    private void solve(int row, int column) {
+        if(!crossword.isWord(row, column)) {
+            solve_next(row, column);
+        } else if(!crossword.canChange(row, column)) {
+            if(test(row, column)) {
+                solve_next(row, column);
+            }
+            untest(row, column);
+        } else if(splits_left > 0) {
+            split(row, column);
+        } else {
+            for(char new_char = 'a'; new_char <= 'z'; ++new_char) {
+                crossword.set(row, column, new_char);
+                if(test(row, column)) {
+                    solve_next(row, column);
+                }
+                untest(row, column);
+                crossword.unset(row, column);
+            }
+        }
+    } /* solve(int row, int column) */
+
+    /**
+     * @brief forks a subtask for every valid letter of a changeable cell
+     * @param row is the row to split on
+     * @param column is the column to split on
+     **/
+    private void split(int row, int column) {
+        // The cell after this one
+        int next_row = row;
+        int next_column = column + 1;
+        if(next_column == crossword.length()) {
+            next_row = row + 1;
+            next_column = 0;
+        }
+        boolean last_cell = next_row == crossword.length();
+
+        ArrayList<CrosswordTask> subtasks = new ArrayList<CrosswordTask>();
+        for(char new_char = 'a'; new_char <= 'z'; ++new_char) {
+            crossword.set(row, column, new_char);
+            if(test(row, column)) {
+                if(last_cell) {
+                    solutions.increment();
+                } else {
+                    subtasks.add(new CrosswordTask(dictionary, new CrosswordState(crossword), solutions,
+                                                   horizontal_start, vertical_start,
+                                                   next_row, next_column, splits_left - 1));
+                }
+            }
+            untest(row, column);
+            crossword.unset(row, column);
+        }
+        invokeAll(subtasks);
+    } /* split(int row, int column) */
+} /* CrosswordTask */
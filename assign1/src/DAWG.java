@@ -0,0 +1,396 @@
+/**
+ * @file DAWG.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief implements a directed acyclic word graph (minimal acyclic DFA)
+ **/
+import java.util.*;
+
+/**
+ * @brief a dictionary that shares suffixes as well as prefixes
+ * @details a DLB shares the start of words but every word still gets its own
+ *  copy of an ending like "-ing" or "-tion". This builds the minimal automaton
+ *  instead, where any two nodes that accept the same set of endings are
+ *  merged into one.
+ *
+ *  Words must be added in sorted order, which lets the graph be minimized
+ *  while it is being built (Daciuk et al. 2000): once a word is added, the
+ *  part of the previous word that isn't shared with it can never change again
+ *  so it is merged with any equivalent node right away.
+ *
+ *  The first search freezes the graph into flat arrays (the edges of each
+ *  node are stored next to each other) and no more words can be added.
+ **/
+public class DAWG implements DictInterface {
+    //! Marks a missing node
+    private static final int NONE = -1;
+    //! Index of the root node once frozen
+    private static final int ROOT = 0;
+
+    /**** Building ****/
+    //! The root node while building
+    private State root;
+    //! Every finished node, used to find an equivalent node to merge with
+    private HashMap<State, State> register;
+    //! The last word added
+    private String previous_word;
+
+    /**** Frozen ****/
+    //! Whether or not the graph has been frozen into arrays
+    private boolean frozen;
+    //! Index of the first edge of each node, the node's edges end where the
+    //! next node's begin (so it has node_count + 1 entries)
+    private int[] first_edge;
+    //! The character of each edge
+    private char[] edge_label;
+    //! The node each edge leads to
+    private int[] edge_target;
+    //! Bitset marking each node that ends a word
+    private long[] end;
+    //! The number of nodes
+    private int node_count;
+
+    /**
+     * @brief makes an empty graph
+     **/
+    public DAWG() {
+        root = new State();
+        register = new HashMap<State, State>();
+        previous_word = "";
+        frozen = false;
+    }
+
+    /**
+     * @brief adds a word to the graph
+     * @param value the word to add, must not come before the last word added
+     * @return true if added, false if it is empty, out of order or the graph
+     *  has already been frozen
+     **/
+    public boolean add(String value) {
+        if(frozen || value.length() == 0 || value.compareTo(previous_word) < 0) {
+            return false;
+        }
+        // Follow the part shared with the last word
+        int common = 0;
+        int limit = Math.min(value.length(), previous_word.length());
+        State node = root;
+        while(common < limit && value.charAt(common) == previous_word.charAt(common)) {
+            node = node.lastChild();
+            ++common;
+        }
+        // Everything the last word added past that point is finished
+        if(node.count > 0) {
+            replaceOrRegister(node);
+        }
+        // Then add the new ending
+        for(int i = common; i < value.length(); ++i) {
+            State next = new State();
+            node.addChild(value.charAt(i), next);
+            node = next;
+        }
+        node.end = true;
+        previous_word = value;
+        return true;
+    } /* add(String value) */
+
+    /**
+     * Implements a searchPrefix function from DictInterface
+     **/
+    public int searchPrefix(StringBuilder s) {
+        return searchPrefix(s, 0, s.length() - 1);
+    }
+
+    /**
+     * Implements a searchPrefix function from DictInterface
+     **/
+    public int searchPrefix(StringBuilder s, int start, int end) {
+        return search(s, start, end);
+    }
+
+    /**
+     * Implements the char array searchPrefix function from DictInterface
+     **/
+    public int searchPrefix(char[] s, int start, int end) {
+        freeze();
+        int node = ROOT;
+        for(int i = start; i <= end; ++i) {
+            node = findChild(node, s[i]);
+            if(node == NONE) {
+                return 0;
+            }
+        }
+        return status(node);
+    }
+
+    /**
+     * @brief walks the nodes for a range of characters
+     **/
+    private int search(CharSequence s, int start, int end) {
+        freeze();
+        int node = ROOT;
+        for(int i = start; i <= end; ++i) {
+            node = findChild(node, s.charAt(i));
+            if(node == NONE) {
+                return 0;
+            }
+        }
+        return status(node);
+    }
+
+    /**
+     * @brief makes a cursor that walks the graph one node at a time
+     * @return a new cursor at the empty prefix
+     **/
+    public DictCursor cursor() {
+        freeze();
+        return new Cursor();
+    }
+
+    /**
+     * @brief gets the number of nodes in the graph (freezes it)
+     * @return the node count
+     **/
+    public int size() {
+        freeze();
+        return node_count;
+    }
+
+    /**
+     * @brief finishes minimizing the graph and packs it into arrays
+     * @details called by the first search, after this add() returns false
+     **/
+    public void freeze() {
+        if(frozen) {
+            return;
+        }
+        if(root.count > 0) {
+            replaceOrRegister(root);
+        }
+
+        // Number the nodes breadth first
+        IdentityHashMap<State, Integer> ids = new IdentityHashMap<State, Integer>();
+        ArrayList<State> order = new ArrayList<State>();
+        ids.put(root, ROOT);
+        order.add(root);
+        int edge_count = 0;
+        for(int read = 0; read < order.size(); ++read) {
+            State node = order.get(read);
+            edge_count += node.count;
+            for(int i = 0; i < node.count; ++i) {
+                if(!ids.containsKey(node.targets[i])) {
+                    ids.put(node.targets[i], order.size());
+                    order.add(node.targets[i]);
+                }
+            }
+        }
+
+        node_count = order.size();
+        first_edge = new int[node_count + 1];
+        edge_label = new char[edge_count];
+        edge_target = new int[edge_count];
+        end = new long[(node_count >> 6) + 1];
+        int edge = 0;
+        for(int id = 0; id < node_count; ++id) {
+            State node = order.get(id);
+            first_edge[id] = edge;
+            if(node.end) {
+                end[id >> 6] |= 1L << id;
+            }
+            for(int i = 0; i < node.count; ++i) {
+                edge_label[edge] = node.labels[i];
+                edge_target[edge] = ids.get(node.targets[i]);
+                ++edge;
+            }
+        }
+        first_edge[node_count] = edge;
+
+        // The building nodes aren't needed anymore
+        root = null;
+        register = null;
+        previous_word = null;
+        frozen = true;
+    } /* freeze() */
+
+    /**
+     * @brief merges the finished nodes below a node with equivalent ones
+     * @param node the node whose last child (and everything under it) is done
+     **/
+    private void replaceOrRegister(State node) {
+        State child = node.lastChild();
+        if(child.count > 0) {
+            replaceOrRegister(child);
+        }
+        State equivalent = register.get(child);
+        if(equivalent != null) {
+            node.targets[node.count - 1] = equivalent;
+        } else {
+            register.put(child, child);
+        }
+    } /* replaceOrRegister(State node) */
+
+    /**
+     * @brief finds the node an edge with a certain value leads to
+     * @param node the node to leave
+     * @param c the value of the edge
+     * @return the node or NONE if there is no such edge
+     **/
+    private int findChild(int node, char c) {
+        for(int edge = first_edge[node]; edge < first_edge[node + 1]; ++edge) {
+            if(edge_label[edge] == c) {
+                return edge_target[edge];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * @brief finds the letters of the edges leaving a node
+     * @param node the node to leave
+     * @return a bitmask with bit (c - 'a') set for each edge 'a' to 'z'
+     **/
+    private int childLetters(int node) {
+        int letters = 0;
+        for(int edge = first_edge[node]; edge < first_edge[node + 1]; ++edge) {
+            char c = edge_label[edge];
+            if(c >= 'a' && c <= 'z') {
+                letters |= 1 << (c - 'a');
+            }
+        }
+        return letters;
+    }
+
+    /**
+     * @brief gets the searchPrefix result for a node
+     * @param node the node that was reached
+     * @return 1 if it has edges leaving it, plus 2 if it ends a word
+     **/
+    private int status(int node) {
+        int result = 0;
+        if(first_edge[node] != first_edge[node + 1]) {
+            result |= 1;
+        }
+        if((end[node >> 6] & (1L << node)) != 0) {
+            result |= 2;
+        }
+        return result;
+    }
+
+    /**
+     * @brief a node of the graph while it is being built
+     * @details two nodes are equal if they are both (or both not) the end of
+     *  a word and have the same edges to the same (already merged) nodes.
+     **/
+    private static class State {
+        //! Whether a word ends here
+        boolean end;
+        //! The character of each edge, in sorted order
+        char[] labels = new char[2];
+        //! The node each edge leads to
+        State[] targets = new State[2];
+        //! The number of edges
+        int count;
+
+        /**
+         * @brief adds an edge after all of the current ones
+         * @param c the value of the edge
+         * @param target the node the edge leads to
+         **/
+        void addChild(char c, State target) {
+            if(count == labels.length) {
+                labels = Arrays.copyOf(labels, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            labels[count] = c;
+            targets[count] = target;
+            ++count;
+        }
+
+        /**
+         * @brief gets the node the last edge leads to
+         * @return the last child
+         **/
+        State lastChild() {
+            return targets[count - 1];
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = end ? 1 : 0;
+            for(int i = 0; i < count; ++i) {
+                hash = 31 * hash + labels[i];
+                hash = 31 * hash + System.identityHashCode(targets[i]);
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof State)) {
+                return false;
+            }
+            State that = (State) other;
+            if(end != that.end || count != that.count) {
+                return false;
+            }
+            for(int i = 0; i < count; ++i) {
+                if(labels[i] != that.labels[i] || targets[i] != that.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    } /* State */
+
+    /**
+     * @brief a DictCursor that remembers the node reached at each depth
+     **/
+    private class Cursor implements DictCursor {
+        //! The node matched at each depth, NONE if the prefix fell off the graph
+        private int[] nodes;
+        //! The current depth
+        private int depth;
+
+        /**
+         * @brief makes a cursor at the empty prefix
+         **/
+        Cursor() {
+            nodes = new int[16];
+            nodes[0] = ROOT;
+            depth = 0;
+        }
+
+        public int advance(char c) {
+            if(depth + 1 == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            int node = nodes[depth];
+            if(node != NONE) {
+                node = findChild(node, c);
+            }
+            nodes[++depth] = node;
+            if(node == NONE) {
+                return 0;
+            }
+            return status(node);
+        }
+
+        public void retreat() {
+            --depth;
+        }
+
+        public int nextLetters() {
+            if(nodes[depth] == NONE) {
+                return 0;
+            }
+            return childLetters(nodes[depth]);
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        public void reset() {
+            depth = 0;
+        }
+    } /* Cursor */
+} /* DAWG */
@@ -4,6 +4,7 @@
  * @date 09/18/2019
  * @brief implements a DLB tree to store strings
  **/
+import java.util.Arrays;
 
 /**
  * @brief a node in the DLB tree. Any node can serve as root.
@@ -36,12 +37,39 @@ public class DLB implements DictInterface {
 
     /**
      * @brief inplements the add method of the Dictionary interface
+     * @details walks the tree with a loop instead of recursing once per
+     *  character and brother, see add(String value, int index)
      * @param value the string to add to the dictionary
      * @return true if inserted, false if not
      **/
     public boolean add(String value) {
-        return add(value, 0);
-    }
+        DLB node = this;
+        int index = 0;
+        while(true) {
+            char c = value.charAt(index);
+            // Move along the brothers until we are the value being added,
+            //  making a brother to accept it if none exist
+            while(node.value != c) {
+                if(node.brother == null) {
+                    node.brother = new DLB(c);
+                }
+                node = node.brother;
+            }
+            // If there is more to add
+            if(index < value.length() - 1) {
+                // Create the child if none exists (with that value)
+                if(node.child == null) {
+                    node.child = new DLB(value.charAt(index + 1));
+                }
+                node = node.child;
+                ++index;
+            } else {
+                // We are the value and there is no more to add... we are an end
+                node.end = true;
+                return true;
+            }
+        }
+    } /* add(String value) */
 
     /**
      * @brief implements add for the DLB tree
@@ -81,16 +109,84 @@ public class DLB implements DictInterface {
      * Implements a searchPrefix function from DictInterface
      **/
     public int searchPrefix(StringBuilder s) {
-        return searchPrefix(s, 0, s.length()-1, 0);
+        return searchPrefix(s, 0, s.length()-1);
     }
 
     /**
      * Implements a searchPrefix function from DictInterface
      **/
     public int searchPrefix(StringBuilder s, int start, int end) {
-        return searchPrefix(s, start, end, start);
+        return search(s, start, end);
     }
 
+    /**
+     * Implements the char array searchPrefix function from DictInterface
+     **/
+    public int searchPrefix(char[] s, int start, int end) {
+        // Same walk as search(), reading the array directly so nothing is
+        //  allocated per call
+        DLB node = this;
+        for(int index = start; ; ++index) {
+            node = brother(node, s[index]);
+            if(node == null || index == end) {
+                return status(node);
+            }
+            node = node.child;
+        }
+    } /* searchPrefix(char[] s, int start, int end) */
+
+    /**
+     * @brief walks the tree for a range of characters
+     * @details same results as searchPrefix(s, start, end, start) but walks
+     *  the tree with a loop instead of recursing
+     **/
+    private int search(CharSequence s, int start, int end) {
+        DLB node = this;
+        for(int index = start; ; ++index) {
+            node = brother(node, s.charAt(index));
+            if(node == null || index == end) {
+                return status(node);
+            }
+            node = node.child;
+        }
+    } /* search(CharSequence s, int start, int end) */
+
+    /**
+     * @brief finds the node holding a value among a node and its brothers
+     * @param node the first brother to check, may be null
+     * @param c the value to look for
+     * @return the node or null if this value does not exist
+     **/
+    private static DLB brother(DLB node, char c) {
+        while(node != null && node.value != c) {
+            node = node.brother;
+        }
+        return node;
+    } /* brother(DLB node, char c) */
+
+    /**
+     * @brief gets what the string ending at a node is
+     * @param node the node matching the last character, may be null
+     * @return the searchPrefix result for the string
+     **/
+    private static int status(DLB node) {
+        if(node == null) {
+            // this value does not exist
+            return 0;
+        }
+        if(node.child == null) {
+            // If we have no children this should also be an end, but
+            //  if not there is nothing here
+            return node.end ? 2 : 0;
+        }
+        if(node.end) {
+            // we are a word and a prefix
+            return 3;
+        }
+        // we are only a prefix
+        return 1;
+    } /* status(DLB node) */
+
     /**
      * @brief implements the DLB search prefix
      * @param s the string to look up
@@ -150,6 +246,98 @@ public class DLB implements DictInterface {
         }
     } /* searchPrefix(StringBuilder s, int start, int end, int index) */
 
+    /**
+     * @brief makes a cursor that walks the tree one node at a time
+     * @return a new cursor at the empty prefix
+     **/
+    public DictCursor cursor() {
+        return new Cursor(this);
+    }
+
+    /**
+     * @brief a DictCursor that remembers the node reached at each depth
+     **/
+    private static class Cursor implements DictCursor {
+        //! The node the search starts at (the root)
+        private DLB root;
+        //! The node matched at each depth, null if the prefix fell off the tree
+        private DLB[] nodes;
+        //! The current depth
+        private int depth;
+
+        /**
+         * @brief makes a cursor at the empty prefix
+         * @param root the node to start searching at
+         **/
+        Cursor(DLB root) {
+            this.root = root;
+            this.nodes = new DLB[16];
+            this.depth = 0;
+        }
+
+        public int advance(char c) {
+            if(depth + 1 == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            // The first character is the root or one of its brothers, the
+            //  rest are children of the last node matched
+            DLB node;
+            if(depth == 0) {
+                node = root;
+            } else if(nodes[depth] == null) {
+                node = null;
+            } else {
+                node = nodes[depth].child;
+            }
+            while(node != null && node.value != c) {
+                node = node.brother;
+            }
+            nodes[++depth] = node;
+
+            if(node == null) {
+                return 0;
+            }
+            int result = 0;
+            if(node.child != null) {
+                result |= 1;
+            }
+            if(node.end) {
+                result |= 2;
+            }
+            return result;
+        }
+
+        public void retreat() {
+            --depth;
+        }
+
+        public int nextLetters() {
+            DLB node;
+            if(depth == 0) {
+                node = root;
+            } else if(nodes[depth] == null) {
+                return 0;
+            } else {
+                node = nodes[depth].child;
+            }
+            int letters = 0;
+            for(/* Using node */; node != null; node = node.brother) {
+                if(node.value >= 'a' && node.value <= 'z') {
+                    letters |= 1 << (node.value - 'a');
+                }
+            }
+            return letters;
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        public void reset() {
+            depth = 0;
+        }
+    } /* Cursor */
+
     /**
      * @brief allows words to be deleted from the dictionary
      * @param string the string to delete
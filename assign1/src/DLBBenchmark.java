@@ -0,0 +1,84 @@
+/**
+ * @file DLBBenchmark.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief compares the recursive and iterative DLB add/searchPrefix
+ **/
+import java.io.*;
+import java.util.*;
+
+/**
+ * @brief times the recursive DLB methods against the loop based ones
+ * @details runs each operation over every word of the dictionary for a number
+ *  of untimed warmup rounds (so the JIT has compiled everything) and then
+ *  reports the throughput and allocation over the measured rounds.
+ **/
+public class DLBBenchmark {
+    public static void main(String[] args) throws IOException {
+        String file_name;
+        if(args.length > 0) {
+            file_name = args[0];
+        } else {
+            file_name = "dict8.txt";
+        }
+
+        // Load the words to add and the strings to search for
+        final ArrayList<String> words = new ArrayList<String>();
+        Scanner fileScan = new Scanner(new FileInputStream(file_name));
+        while (fileScan.hasNext()) {
+            String st = fileScan.nextLine();
+            if(st.length() > 0) {
+                words.add(st);
+            }
+        }
+        // Search each word along with a string that falls off the tree
+        final StringBuilder[] queries = new StringBuilder[words.size() * 2];
+        for(int i = 0; i < words.size(); ++i) {
+            queries[2 * i] = new StringBuilder(words.get(i));
+            queries[2 * i + 1] = new StringBuilder(words.get(i)).append('#');
+        }
+        final DLB dlb = new DLB();
+        for(String word : words) {
+            dlb.add(word);
+        }
+
+        System.out.println("Benchmarking DLB with " + words.size() + " words from " + file_name);
+        Benchmark.header();
+        Benchmark.run("add (recursive)", words.size(), new Benchmark.Round() {
+            public long run() {
+                DLB tree = new DLB();
+                for(String word : words) {
+                    tree.add(word, 0);
+                }
+                return tree.searchPrefix(queries[0]);
+            }
+        });
+        Benchmark.run("add (iterative)", words.size(), new Benchmark.Round() {
+            public long run() {
+                DLB tree = new DLB();
+                for(String word : words) {
+                    tree.add(word);
+                }
+                return tree.searchPrefix(queries[0]);
+            }
+        });
+        Benchmark.run("searchPrefix (recursive)", queries.length, new Benchmark.Round() {
+            public long run() {
+                long sum = 0;
+                for(StringBuilder query : queries) {
+                    sum += dlb.searchPrefix(query, 0, query.length() - 1, 0);
+                }
+                return sum;
+            }
+        });
+        Benchmark.run("searchPrefix (iterative)", queries.length, new Benchmark.Round() {
+            public long run() {
+                long sum = 0;
+                for(StringBuilder query : queries) {
+                    sum += dlb.searchPrefix(query, 0, query.length() - 1);
+                }
+                return sum;
+            }
+        });
+    } /* main(String[] args) */
+} /* DLBBenchmark */
@@ -0,0 +1,62 @@
+/**
+ * @file DictCursor.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief an incremental prefix search into a DictInterface
+ **/
+
+/**
+ * @brief walks a dictionary one character at a time
+ * @details a cursor remembers where the current prefix ended up in the
+ *  dictionary so extending it by a character (or undoing the last character)
+ *  does not need to search the whole prefix again from the start. This makes
+ *  backtracking searches cost O(1) per step instead of O(length of prefix).
+ *  Every advance() must be matched by a retreat(), even when advance()
+ *  returned 0. A cursor is only valid until the dictionary is changed.
+ **/
+public interface DictCursor {
+    /**
+     * @brief appends a character to the current prefix
+     * @param c the character to append
+     * @return 0: if the new prefix does not exist at all in the dictionary
+     *  1: if the new prefix exists only as a prefix in the dictionary
+     *  2: if the new prefix exists only as a word in the dictionary
+     *  3: if the new prefix exists both as a word and a prefix in the dictionary
+     **/
+    public int advance(char c);
+
+    /**
+     * @brief removes the last character appended by advance()
+     **/
+    public void retreat();
+
+    /**
+     * @brief gets the length of the current prefix
+     * @return the number of characters advanced past
+     **/
+    public int depth();
+
+    /**
+     * @brief goes back to the empty prefix
+     **/
+    public void reset();
+
+    /**
+     * @brief finds which letters can come after the current prefix
+     * @details only the letters 'a' to 'z' are considered. The default tries
+     *  each one, dictionaries that store a tree override this to read the
+     *  children of the current node instead.
+     * @return a bitmask with bit (c - 'a') set for every letter c that the
+     *  prefix can continue with
+     **/
+    public default int nextLetters() {
+        int letters = 0;
+        for(char c = 'a'; c <= 'z'; ++c) {
+            if(advance(c) != 0) {
+                letters |= 1 << (c - 'a');
+            }
+            retreat();
+        }
+        return letters;
+    }
+} /* DictCursor */
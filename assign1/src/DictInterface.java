@@ -40,4 +40,31 @@ public interface DictInterface
 	 * @return
 	 */
 	public int searchPrefix(StringBuilder s, int start, int end);
+
+	/** Same logic as the method above, but searches a range of a char
+	 * array.  A search loop can then fill one reusable buffer instead of
+	 * making a new StringBuilder for every search.  Dictionaries that don't
+	 * override this copy the range into a StringBuilder.
+	 * @param s the characters to search
+	 * @param start the first index to search (inclusive)
+	 * @param end the last index to search (inclusive)
+	 * @return same as searchPrefix(StringBuilder s)
+	 */
+	public default int searchPrefix(char[] s, int start, int end)
+	{
+		StringBuilder sb = new StringBuilder(end - start + 1);
+		sb.append(s, start, end - start + 1);
+		return searchPrefix(sb, 0, end - start);
+	}
+
+	/** Makes a cursor that searches this dictionary one character at a
+	 * time. Backtracking searches can advance() and retreat() the cursor
+	 * instead of searching the whole prefix again after every character.
+	 * Dictionaries that can't do better fall back to a PrefixCursor.
+	 * @return a new cursor at the empty prefix
+	 */
+	public default DictCursor cursor()
+	{
+		return new PrefixCursor(this);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+/**
+ * @file DictSnapshot.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief saves a dictionary as a binary file that can be memory mapped
+ **/
+import java.io.*;
+import java.util.*;
+
+/**
+ * @brief writes a CompactDLB out in the format read by MappedDictionary
+ * @details the file is a header (MAGIC, node count) followed by one fixed
+ *  size record per node in breadth-first order:
+ *      int child   - index of the first child or -1
+ *      char label  - the value of the node
+ *      short flags - END if a word ends here, LAST if it is the last brother
+ *  Since compact() puts brothers next to each other, the brother of a node is
+ *  always the next record unless the node is marked LAST.
+ **/
+public class DictSnapshot {
+    //! Identifies a snapshot file ("DLB1")
+    static final int MAGIC = 0x444C4231;
+    //! Size of the header in bytes
+    static final int HEADER_SIZE = 8;
+    //! Size of a node record in bytes
+    static final int RECORD_SIZE = 8;
+    //! Offset of the child index in a record
+    static final int CHILD_OFFSET = 0;
+    //! Offset of the label in a record
+    static final int LABEL_OFFSET = 4;
+    //! Offset of the flags in a record
+    static final int FLAGS_OFFSET = 6;
+    //! Flag for a node that ends a word
+    static final short END = 1;
+    //! Flag for a node that has no brother after it
+    static final short LAST = 2;
+
+    /**
+     * @brief builds a snapshot from a text dictionary
+     **/
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.out.println("Insufficient arguments provided.");
+            System.out.println("Please provide the following: <dictionary> <snapshot file>");
+            return;
+        }
+
+        CompactDLB dictionary = new CompactDLB();
+        Scanner dictionary_scan = new Scanner(new FileInputStream(args[0]));
+        while (dictionary_scan.hasNext()) {
+            String next_line = dictionary_scan.nextLine();
+            dictionary.add(next_line);
+        }
+        dictionary_scan.close();
+
+        write(dictionary, args[1]);
+        System.out.println("Wrote " + dictionary.size() + " nodes to " + args[1]);
+    } /* main(String[] args) */
+
+    /**
+     * @brief writes a dictionary to a snapshot file
+     * @param dictionary the dictionary to write, it is compacted first
+     * @param filename the file to write to
+     **/
+    public static void write(CompactDLB dictionary, String filename) throws IOException {
+        dictionary.compact();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(dictionary.size());
+            for(int node = 0; node < dictionary.size(); ++node) {
+                short flags = 0;
+                if(dictionary.isEnd(node)) {
+                    flags |= END;
+                }
+                if(dictionary.brother(node) == CompactDLB.NONE) {
+                    flags |= LAST;
+                }
+                out.writeInt(dictionary.child(node));
+                out.writeChar(dictionary.label(node));
+                out.writeShort(flags);
+            }
+        } finally {
+            out.close();
+        }
+    } /* write(CompactDLB dictionary, String filename) */
+} /* DictSnapshot */
@@ -22,11 +22,12 @@ public class DictTest
 		String st;
 		StringBuilder sb;
 		DictInterface D;
-        if(args.length == 0 || !args[0].equals("DLB")) {
-            System.out.println(args[0]);
-    		D = new MyDictionary();
-        } else {
+        if(args.length > 0 && args[0].equals("DLB")) {
             D = new DLB();
+        } else if(args.length > 0 && args[0].equals("CDLB")) {
+            D = new CompactDLB();
+        } else {
+    		D = new MyDictionary();
         }
 
 		while (fileScan.hasNext())
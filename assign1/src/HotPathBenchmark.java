@@ -0,0 +1,136 @@
+/**
+ * @file HotPathBenchmark.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief benchmarks the dictionary and crossword solver hot paths
+ **/
+import java.io.*;
+import java.util.*;
+
+/**
+ * @brief baseline numbers for the dictionaries and the crossword solver
+ * @details covers DLB.add, DLB.searchPrefix, MyDictionary.searchPrefix (both
+ *  the linear and sort-once modes) and full Crossword.solve runs on a few
+ *  grids, each reported by Benchmark as throughput and bytes allocated per
+ *  operation. Run it before and after a change to these classes to compare.
+ *  It fails if a solve allocates more than its setup, since the search is
+ *  meant to allocate nothing.
+ *
+ *  Usage: HotPathBenchmark [dictionary] [crossword files...]
+ **/
+public class HotPathBenchmark {
+    //! Grids solved when none are given (each solves in well under a second)
+    private static final String[] DEFAULT_GRIDS = {
+        "raw/test3b.txt", "raw/test4d.txt", "raw/test4f.txt"
+    };
+    //! Number of queries a linear MyDictionary round makes (it is very slow)
+    private static final int LINEAR_QUERIES = 2000;
+    //! Untimed and timed rounds for the crossword solves
+    private static final int SOLVE_WARMUP_ROUNDS = 3;
+    private static final int SOLVE_MEASURE_ROUNDS = 5;
+    //! Most a solve may allocate, only its CrosswordState and buffers since
+    //! the search itself allocates nothing
+    private static final int MAX_SOLVE_BYTES = 1024;
+
+    public static void main(String[] args) throws IOException {
+        String file_name = "dict8.txt";
+        if(args.length > 0) {
+            file_name = args[0];
+        }
+        String[] grids = DEFAULT_GRIDS;
+        if(args.length > 1) {
+            grids = Arrays.copyOfRange(args, 1, args.length);
+        }
+
+        // Load the words to add and the strings to search for
+        final ArrayList<String> words = new ArrayList<String>();
+        Scanner fileScan = new Scanner(new FileInputStream(file_name));
+        while (fileScan.hasNext()) {
+            String st = fileScan.nextLine();
+            if(st.length() > 0) {
+                words.add(st);
+            }
+        }
+        fileScan.close();
+        // Search each word along with a string that falls off the tree
+        final StringBuilder[] queries = new StringBuilder[words.size() * 2];
+        for(int i = 0; i < words.size(); ++i) {
+            queries[2 * i] = new StringBuilder(words.get(i));
+            queries[2 * i + 1] = new StringBuilder(words.get(i)).append('#');
+        }
+        final StringBuilder[] linear_queries = Arrays.copyOf(queries, Math.min(LINEAR_QUERIES, queries.length));
+
+        final DLB dlb = new DLB();
+        final MyDictionary linear = new MyDictionary();
+        final MyDictionary sorted = new MyDictionary(true);
+        for(String word : words) {
+            dlb.add(word);
+            linear.add(word);
+            sorted.add(word);
+        }
+
+        System.out.println("Benchmarking with " + words.size() + " words from " + file_name);
+        Benchmark.header();
+        Benchmark.run("DLB.add", words.size(), new Benchmark.Round() {
+            public long run() {
+                DLB tree = new DLB();
+                for(String word : words) {
+                    tree.add(word);
+                }
+                return tree.searchPrefix(queries[0]);
+            }
+        });
+        Benchmark.run("DLB.searchPrefix", queries.length, new Benchmark.Round() {
+            public long run() {
+                long sum = 0;
+                for(StringBuilder query : queries) {
+                    sum += dlb.searchPrefix(query);
+                }
+                return sum;
+            }
+        });
+        Benchmark.run("MyDictionary.searchPrefix", linear_queries.length, new Benchmark.Round() {
+            public long run() {
+                long sum = 0;
+                for(StringBuilder query : linear_queries) {
+                    sum += linear.searchPrefix(query);
+                }
+                return sum;
+            }
+        });
+        Benchmark.run("MyDictionary.searchPrefix (sorted)", queries.length, new Benchmark.Round() {
+            public long run() {
+                long sum = 0;
+                for(StringBuilder query : queries) {
+                    sum += sorted.searchPrefix(query);
+                }
+                return sum;
+            }
+        });
+
+        // Full solves, counting every solution without printing
+        Crossword.dictionary = sorted;
+        Crossword.find_first_solution = false;
+        Crossword.verbosity = 0;
+        for(String grid : grids) {
+            final CrosswordState start = new CrosswordState(grid);
+            Benchmark.run("Crossword.solve " + new File(grid).getName(), 1,
+                          SOLVE_WARMUP_ROUNDS, SOLVE_MEASURE_ROUNDS, new Benchmark.Round() {
+                public long run() {
+                    Crossword.crossword = new CrosswordState(start);
+                    Crossword.horizontal_buffer = new char[start.length()];
+                    Crossword.vertical_buffer = new char[start.length()];
+                    Crossword.solutions = 0;
+                    Crossword.solve(0, 0);
+                    return Crossword.solutions;
+                }
+            });
+            double bytes = Benchmark.lastBytesPerOp();
+            if(bytes > MAX_SOLVE_BYTES) {
+                throw new IllegalStateException("Crossword.solve " + grid + " allocated "
+                                                + (long) bytes + " B per solve, at most "
+                                                + MAX_SOLVE_BYTES + " expected");
+            }
+        }
+    } /* main(String[] args) */
+} /* HotPathBenchmark */
@@ -0,0 +1,239 @@
+/**
+ * @file MappedDictionary.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief answers dictionary searches straight out of a memory mapped snapshot
+ **/
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * @brief a read-only DictInterface over a file written by DictSnapshot
+ * @details the file is mapped into memory instead of being parsed, so opening
+ *  a dictionary costs about the same no matter how big it is and several
+ *  processes using the same file share its pages.
+ **/
+public class MappedDictionary implements DictInterface {
+    //! The mapped snapshot
+    private ByteBuffer buffer;
+    //! The number of nodes in the snapshot
+    private int node_count;
+
+    /**
+     * @brief maps a snapshot file
+     * @param filename the snapshot written by DictSnapshot
+     **/
+    public MappedDictionary(String filename) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(filename, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            // The mapping stays valid after the file is closed
+            file.close();
+        }
+        if(buffer.capacity() < DictSnapshot.HEADER_SIZE || buffer.getInt(0) != DictSnapshot.MAGIC) {
+            throw new IOException(filename + " is not a dictionary snapshot.");
+        }
+        node_count = buffer.getInt(4);
+        if(buffer.capacity() < DictSnapshot.HEADER_SIZE + (long) node_count * DictSnapshot.RECORD_SIZE) {
+            throw new IOException(filename + " is truncated.");
+        }
+    }
+
+    /**
+     * @brief the snapshot can't be changed
+     * @param s the string that would be added
+     * @return false always
+     **/
+    public boolean add(String s) {
+        return false;
+    }
+
+    /**
+     * Implements a searchPrefix function from DictInterface
+     **/
+    public int searchPrefix(StringBuilder s) {
+        return searchPrefix(s, 0, s.length() - 1);
+    }
+
+    /**
+     * Implements a searchPrefix function from DictInterface
+     **/
+    public int searchPrefix(StringBuilder s, int start, int end) {
+        return search(s, start, end);
+    }
+
+    /**
+     * Implements the char array searchPrefix function from DictInterface
+     **/
+    public int searchPrefix(char[] s, int start, int end) {
+        int node = CompactDLB.ROOT;
+        for(int i = start; i <= end; ++i) {
+            node = findChild(node, s[i]);
+            if(node == CompactDLB.NONE) {
+                return 0;
+            }
+        }
+        return status(node);
+    }
+
+    /**
+     * @brief walks the nodes for a range of characters
+     **/
+    private int search(CharSequence s, int start, int end) {
+        int node = CompactDLB.ROOT;
+        for(int i = start; i <= end; ++i) {
+            node = findChild(node, s.charAt(i));
+            if(node == CompactDLB.NONE) {
+                return 0;
+            }
+        }
+        return status(node);
+    }
+
+    /**
+     * @brief makes a cursor that walks the snapshot one node at a time
+     * @return a new cursor at the empty prefix
+     **/
+    public DictCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @brief gets the number of nodes in the snapshot
+     * @return the node count
+     **/
+    public int size() {
+        return node_count;
+    }
+
+    /**
+     * @brief finds the child of a node holding a certain value
+     * @param node the parent node
+     * @param c the value to look for
+     * @return the index of the child or NONE if it does not exist
+     **/
+    private int findChild(int node, char c) {
+        int next = buffer.getInt(offset(node) + DictSnapshot.CHILD_OFFSET);
+        if(next == CompactDLB.NONE) {
+            return CompactDLB.NONE;
+        }
+        // Brothers are stored one after another until one is marked LAST
+        while(true) {
+            int record = offset(next);
+            if(buffer.getChar(record + DictSnapshot.LABEL_OFFSET) == c) {
+                return next;
+            }
+            if((buffer.getShort(record + DictSnapshot.FLAGS_OFFSET) & DictSnapshot.LAST) != 0) {
+                return CompactDLB.NONE;
+            }
+            ++next;
+        }
+    }
+
+    /**
+     * @brief finds the letters of the children of a node
+     * @param node the parent node
+     * @return a bitmask with bit (c - 'a') set for each child 'a' to 'z'
+     **/
+    private int childLetters(int node) {
+        int next = buffer.getInt(offset(node) + DictSnapshot.CHILD_OFFSET);
+        int letters = 0;
+        if(next == CompactDLB.NONE) {
+            return letters;
+        }
+        while(true) {
+            int record = offset(next);
+            char c = buffer.getChar(record + DictSnapshot.LABEL_OFFSET);
+            if(c >= 'a' && c <= 'z') {
+                letters |= 1 << (c - 'a');
+            }
+            if((buffer.getShort(record + DictSnapshot.FLAGS_OFFSET) & DictSnapshot.LAST) != 0) {
+                return letters;
+            }
+            ++next;
+        }
+    }
+
+    /**
+     * @brief gets the searchPrefix result for a node
+     * @param node the node that was reached
+     * @return 1 if it has children, plus 2 if it ends a word
+     **/
+    private int status(int node) {
+        int record = offset(node);
+        int result = 0;
+        if(buffer.getInt(record + DictSnapshot.CHILD_OFFSET) != CompactDLB.NONE) {
+            result |= 1;
+        }
+        if((buffer.getShort(record + DictSnapshot.FLAGS_OFFSET) & DictSnapshot.END) != 0) {
+            result |= 2;
+        }
+        return result;
+    }
+
+    /**
+     * @brief gets where a node's record starts in the buffer
+     * @param node the index of the node
+     * @return the byte offset of the record
+     **/
+    private static int offset(int node) {
+        return DictSnapshot.HEADER_SIZE + node * DictSnapshot.RECORD_SIZE;
+    }
+
+    /**
+     * @brief a DictCursor that remembers the node index reached at each depth
+     **/
+    private class Cursor implements DictCursor {
+        //! The node matched at each depth, NONE if the prefix fell off the tree
+        private int[] nodes;
+        //! The current depth
+        private int depth;
+
+        /**
+         * @brief makes a cursor at the empty prefix
+         **/
+        Cursor() {
+            nodes = new int[16];
+            nodes[0] = CompactDLB.ROOT;
+            depth = 0;
+        }
+
+        public int advance(char c) {
+            if(depth + 1 == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            int node = nodes[depth];
+            if(node != CompactDLB.NONE) {
+                node = findChild(node, c);
+            }
+            nodes[++depth] = node;
+            if(node == CompactDLB.NONE) {
+                return 0;
+            }
+            return status(node);
+        }
+
+        public void retreat() {
+            --depth;
+        }
+
+        public int nextLetters() {
+            if(nodes[depth] == CompactDLB.NONE) {
+                return 0;
+            }
+            return childLetters(nodes[depth]);
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        public void reset() {
+            depth = 0;
+        }
+    } /* Cursor */
+} /* MappedDictionary */
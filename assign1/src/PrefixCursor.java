@@ -0,0 +1,45 @@
+/**
+ * @file PrefixCursor.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief a DictCursor for dictionaries without their own cursor
+ **/
+
+/**
+ * @brief implements DictCursor on top of searchPrefix
+ * @details keeps the current prefix in a StringBuilder and searches the whole
+ *  thing on each advance, so it is no faster than calling searchPrefix
+ *  directly. It lets any DictInterface be used where a cursor is expected.
+ **/
+public class PrefixCursor implements DictCursor {
+    //! The dictionary being searched
+    private DictInterface dictionary;
+    //! The current prefix
+    private StringBuilder prefix;
+
+    /**
+     * @brief makes a cursor at the empty prefix
+     * @param dictionary the dictionary to search
+     **/
+    public PrefixCursor(DictInterface dictionary) {
+        this.dictionary = dictionary;
+        this.prefix = new StringBuilder();
+    }
+
+    public int advance(char c) {
+        prefix.append(c);
+        return dictionary.searchPrefix(prefix);
+    }
+
+    public void retreat() {
+        prefix.setLength(prefix.length() - 1);
+    }
+
+    public int depth() {
+        return prefix.length();
+    }
+
+    public void reset() {
+        prefix.setLength(0);
+    }
+} /* PrefixCursor */
@@ -0,0 +1,399 @@
+/**
+ * @file SlotSolver.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 09/18/2019
+ * @brief counts crossword solutions by filling whole words with constraint propagation
+ **/
+import java.io.*;
+import java.util.*;
+
+/**
+ * @brief a word-slot based crossword engine
+ * @details instead of trying all 26 letters cell by cell in row-major order
+ *  this splits the crossword into slots (every horizontal and vertical run of
+ *  word cells) and keeps a bitmask of the letters each cell could still be.
+ *
+ *  Propagation: for a slot, walk the dictionary with a DictCursor only
+ *  following letters allowed by the slot's cell masks (and the letters the
+ *  node actually has children for, DictCursor.nextLetters()). Every word that
+ *  fits marks its letters as supported, and each cell's mask is cut down to
+ *  the letters some word supports. A cell that changes re-checks the slot
+ *  crossing it, until nothing changes or some slot has no words left.
+ *
+ *  Search: pick the unfilled slot with the fewest fitting words (MRV), try
+ *  each of those words in turn, propagate and recurse.
+ **/
+public class SlotSolver {
+    //! Every letter 'a' to 'z' allowed
+    private static final int ALL_LETTERS = (1 << 26) - 1;
+
+    //! The Dictionary to query
+    private DictInterface dictionary;
+    //! The crossword being solved (only read from)
+    private CrosswordState crossword;
+    //! Cursor used for all of the dictionary walks
+    private DictCursor cursor;
+    //! The cells (row * dimension + column) of each slot, in reading order
+    private int[][] slot_cells;
+    //! The horizontal and vertical slot each cell is in (-1 if not a word cell)
+    private int[] horizontal_slot;
+    private int[] vertical_slot;
+    //! The letters each cell could still be
+    private int[] masks;
+    //! The number of words that fit each slot as of the last propagation
+    private int[] slot_words;
+    //! Letters supported at each position while checking a slot
+    private int[] support;
+    //! Circular work queue of slots to check
+    private int[] queue;
+    //! Index of the first slot in the queue
+    private int queue_head;
+    //! Number of slots in the queue
+    private int queue_size;
+    //! Whether each slot is already in the queue
+    private boolean[] queued;
+    //! Number of search states (slot assignments) tried
+    private long states;
+    //! Verbosity Level
+    private int verbosity;
+    //! Number of solutions found
+    private long solutions;
+
+    /**
+     * @brief receives commmand line arguments, loads the dictionary and
+     *  crossword, counts the solutions.
+     **/
+    public static void main(String[] args) throws IOException {
+        if(args.length < 3) {
+            System.out.println("Insufficient arguments provided.");
+            System.out.println("Please provide the following: <dictionary_method> <dictionary> <crossword file> <verbosity>");
+            return;
+        }
+        DictInterface dictionary = CrosswordB.loadDictionary(args[0], args[1]);
+        CrosswordState crossword = new CrosswordState(args[2]);
+        int verbosity = 0;
+        if(args.length >= 4) {
+            verbosity = Integer.parseInt(args[3]);
+        }
+
+        SlotSolver solver = new SlotSolver(dictionary, crossword, verbosity);
+        if(verbosity > 0) {
+            System.out.println("Start Crossword:");
+            crossword.print();
+        }
+        long solutions = solver.count();
+        if(verbosity > 0) {
+            System.out.println("Final Solutions: " + solutions);
+            System.out.println("States Explored: " + solver.statesExplored());
+        } else {
+            System.out.println(solutions);
+        }
+    } /* main(String[] args) */
+
+    /**
+     * @brief sets up the slots of a crossword
+     * @param dictionary the dictionary to query
+     * @param crossword the crossword to solve
+     * @param verbosity 2 or more prints every solution
+     **/
+    public SlotSolver(DictInterface dictionary, CrosswordState crossword, int verbosity) {
+        this.dictionary = dictionary;
+        this.crossword = crossword;
+        this.verbosity = verbosity;
+        this.cursor = dictionary.cursor();
+
+        int dimension = crossword.length();
+        horizontal_slot = new int[dimension * dimension];
+        vertical_slot = new int[dimension * dimension];
+        masks = new int[dimension * dimension];
+        Arrays.fill(horizontal_slot, -1);
+        Arrays.fill(vertical_slot, -1);
+
+        // Find the runs of word cells in both directions
+        ArrayList<int[]> slots = new ArrayList<int[]>();
+        for(int horizontal = 1; horizontal >= 0; --horizontal) {
+            for(int line = 0; line < dimension; ++line) {
+                int run_start = 0;
+                for(int i = 0; i <= dimension; ++i) {
+                    int row = horizontal == 1 ? line : i;
+                    int column = horizontal == 1 ? i : line;
+                    if(i < dimension && crossword.isWord(row, column)) {
+                        continue;
+                    }
+                    if(i > run_start) {
+                        int[] cells = new int[i - run_start];
+                        for(int j = 0; j < cells.length; ++j) {
+                            int cell = horizontal == 1 ? line * dimension + run_start + j
+                                                       : (run_start + j) * dimension + line;
+                            cells[j] = cell;
+                            if(horizontal == 1) {
+                                horizontal_slot[cell] = slots.size();
+                            } else {
+                                vertical_slot[cell] = slots.size();
+                            }
+                        }
+                        slots.add(cells);
+                    }
+                    run_start = i + 1;
+                }
+            }
+        }
+        slot_cells = slots.toArray(new int[slots.size()][]);
+        slot_words = new int[slot_cells.length];
+        support = new int[dimension];
+        queue = new int[slot_cells.length];
+        queued = new boolean[slot_cells.length];
+
+        // Preset cells can only be their letter
+        for(int row = 0; row < dimension; ++row) {
+            for(int column = 0; column < dimension; ++column) {
+                int cell = row * dimension + column;
+                if(!crossword.isWord(row, column)) {
+                    masks[cell] = 0;
+                } else if(crossword.canChange(row, column)) {
+                    masks[cell] = ALL_LETTERS;
+                } else {
+                    masks[cell] = letterBit(crossword.get(row, column));
+                }
+            }
+        }
+    } /* SlotSolver(DictInterface dictionary, CrosswordState crossword, int verbosity) */
+
+    /**
+     * @brief counts every solution of the crossword
+     * @return the number of solutions
+     **/
+    public long count() {
+        solutions = 0;
+        states = 0;
+        for(int slot = 0; slot < slot_cells.length; ++slot) {
+            enqueue(slot);
+        }
+        if(propagate()) {
+            search();
+        }
+        return solutions;
+    } /* count() */
+
+    /**
+     * @brief gets the number of search states tried by the last count()
+     * @return the number of slot assignments tried
+     **/
+    public long statesExplored() {
+        return states;
+    }
+
+    /**
+     * @brief fills the most constrained slot with each word that fits and recurses
+     **/
+    private void search() {
+        // Find the slot with the fewest words that still has an open cell
+        int best = -1;
+        for(int slot = 0; slot < slot_cells.length; ++slot) {
+            if(!isFilled(slot) && (best == -1 || slot_words[slot] < slot_words[best])) {
+                best = slot;
+            }
+        }
+        if(best == -1) {
+            success();
+            return;
+        }
+
+        int[] cells = slot_cells[best];
+        ArrayList<char[]> words = new ArrayList<char[]>(slot_words[best]);
+        cursor.reset();
+        collect(cells, 0, new char[cells.length], words);
+
+        int[] saved_masks = masks.clone();
+        int[] saved_words = slot_words.clone();
+        for(char[] word : words) {
+            ++states;
+            for(int i = 0; i < cells.length; ++i) {
+                int bit = letterBit(word[i]);
+                if(masks[cells[i]] != bit) {
+                    masks[cells[i]] = bit;
+                    enqueue(crossingSlot(best, cells[i]));
+                }
+            }
+            slot_words[best] = 1;
+            if(propagate()) {
+                search();
+            }
+            System.arraycopy(saved_masks, 0, masks, 0, masks.length);
+            System.arraycopy(saved_words, 0, slot_words, 0, slot_words.length);
+        }
+    } /* search() */
+
+    /**
+     * @brief checks queued slots and narrows their cell masks until nothing changes
+     * @return false if some slot has no words that fit, true otherwise
+     **/
+    private boolean propagate() {
+        while(queue_size > 0) {
+            int slot = queue[queue_head];
+            queue_head = (queue_head + 1) % queue.length;
+            --queue_size;
+            queued[slot] = false;
+
+            int[] cells = slot_cells[slot];
+            Arrays.fill(support, 0, cells.length, 0);
+            cursor.reset();
+            slot_words[slot] = match(cells, 0);
+            if(slot_words[slot] == 0) {
+                // Empty the queue before giving up
+                while(queue_size > 0) {
+                    queued[queue[queue_head]] = false;
+                    queue_head = (queue_head + 1) % queue.length;
+                    --queue_size;
+                }
+                return false;
+            }
+            for(int i = 0; i < cells.length; ++i) {
+                int narrowed = masks[cells[i]] & support[i];
+                if(narrowed != masks[cells[i]]) {
+                    masks[cells[i]] = narrowed;
+                    enqueue(crossingSlot(slot, cells[i]));
+                }
+            }
+        }
+        return true;
+    } /* propagate() */
+
+    /**
+     * @brief queues a slot to be checked by the next propagate()
+     * @param slot the slot to check
+     **/
+    private void enqueue(int slot) {
+        if(!queued[slot]) {
+            queued[slot] = true;
+            queue[(queue_head + queue_size) % queue.length] = slot;
+            ++queue_size;
+        }
+    }
+
+    /**
+     * @brief counts the words that fit a slot from a position onwards
+     * @details the cursor must be at the prefix made of the slot's first pos
+     *  letters. Marks the letters of every fitting word in support.
+     * @param cells the cells of the slot
+     * @param pos the position in the slot to fill next
+     * @return the number of words that fit
+     **/
+    private int match(int[] cells, int pos) {
+        int allowed = masks[cells[pos]] & cursor.nextLetters();
+        int found = 0;
+        while(allowed != 0) {
+            int bit = Integer.lowestOneBit(allowed);
+            allowed ^= bit;
+            int status = cursor.advance(bitLetter(bit));
+            int words;
+            if(pos == cells.length - 1) {
+                words = (status & 2) != 0 ? 1 : 0;
+            } else if((status & 1) != 0) {
+                words = match(cells, pos + 1);
+            } else {
+                words = 0;
+            }
+            cursor.retreat();
+            if(words > 0) {
+                support[pos] |= bit;
+                found += words;
+            }
+        }
+        return found;
+    } /* match(int[] cells, int pos) */
+
+    /**
+     * @brief lists the words that fit a slot from a position onwards
+     * @param cells the cells of the slot
+     * @param pos the position in the slot to fill next
+     * @param word the letters picked so far
+     * @param words where to add each fitting word
+     **/
+    private void collect(int[] cells, int pos, char[] word, ArrayList<char[]> words) {
+        int allowed = masks[cells[pos]] & cursor.nextLetters();
+        while(allowed != 0) {
+            int bit = Integer.lowestOneBit(allowed);
+            allowed ^= bit;
+            word[pos] = bitLetter(bit);
+            int status = cursor.advance(word[pos]);
+            if(pos == cells.length - 1) {
+                if((status & 2) != 0) {
+                    words.add(word.clone());
+                }
+            } else if((status & 1) != 0) {
+                collect(cells, pos + 1, word, words);
+            }
+            cursor.retreat();
+        }
+    } /* collect(int[] cells, int pos, char[] word, ArrayList<char[]> words) */
+
+    /**
+     * @brief counts (and maybe prints) a solution, every mask is one letter
+     **/
+    private void success() {
+        ++solutions;
+        if(verbosity >= 2) {
+            int dimension = crossword.length();
+            CrosswordState solved = new CrosswordState(crossword);
+            for(int cell = 0; cell < masks.length; ++cell) {
+                if(masks[cell] != 0) {
+                    solved.set(cell / dimension, cell % dimension, bitLetter(masks[cell]));
+                }
+            }
+            System.out.println("Success!!!");
+            solved.print();
+        }
+        if(verbosity >= 1 && solutions % 20 == 0) {
+            System.out.println("Solutions = " + solutions);
+        }
+    } /* success() */
+
+    /**
+     * @brief checks whether every cell of a slot is down to one letter
+     * @param slot the slot to check
+     * @return true if the slot is filled in
+     **/
+    private boolean isFilled(int slot) {
+        for(int cell : slot_cells[slot]) {
+            if(Integer.bitCount(masks[cell]) != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @brief gets the other slot a cell is in
+     * @param slot one of the cell's slots
+     * @param cell the cell
+     * @return the slot going the other direction through the cell
+     **/
+    private int crossingSlot(int slot, int cell) {
+        if(horizontal_slot[cell] == slot) {
+            return vertical_slot[cell];
+        }
+        return horizontal_slot[cell];
+    }
+
+    /**
+     * @brief gets the mask bit of a letter
+     * @param c the letter
+     * @return the bit for 'a' to 'z', 0 for anything else
+     **/
+    private static int letterBit(char c) {
+        if(c < 'a' || c > 'z') {
+            return 0;
+        }
+        return 1 << (c - 'a');
+    }
+
+    /**
+     * @brief gets the letter of a single mask bit
+     * @param bit the bit
+     * @return the letter
+     **/
+    private static char bitLetter(int bit) {
+        return (char) ('a' + Integer.numberOfTrailingZeros(bit));
+    }
+} /* SlotSolver */
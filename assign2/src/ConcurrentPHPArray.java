@@ -0,0 +1,490 @@
+/**
+* @brief implements a PHPArray that several threads can use at once
+* @author Joshua Spisak <jjs231@pitt.edu>
+* @data 10/18/2019
+*
+* Same idea as PHPArray but safe to share between threads
+**/
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @brief an insertion ordered hash table for many reader and writer threads
+ * @details the keys are split between a number of stripes by hash, each
+ *  stripe is a small linear probing table with its own lock, so threads
+ *  working on keys in different stripes never wait on each other. The
+ *  insertion order is a singly linked list of the same nodes that new nodes
+ *  are appended to with compare-and-set on the tail (the Michael-Scott queue
+ *  append), so puts in different stripes never share a lock for it.
+ *
+ *  unset removes the node from its stripe and clears its value, the dead node
+ *  is unlinked from the order list later by whichever traversal passes it.
+ *  Traversals (the iterator, each(), keys() and values()) are weakly
+ *  consistent: they never fail and see every entry that was in the array for
+ *  the whole traversal, entries added or removed during it may or may not be
+ *  seen. each()/reset() keep a separate position for every thread.
+ **/
+public class ConcurrentPHPArray<T> implements Iterable<T> {
+    /**** Some static parameters ****/
+    //! The inital capacity of each stripe's table
+    private static final int STRIPE_CAPACITY = 4;
+    //! A stripe's table is doubled when (count >= length / INCREASE_SIZE_THRESHOLD)
+    private static final int INCREASE_SIZE_THRESHOLD = 2;
+
+    //! Used to compare-and-set the next link of a node
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+        AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+    /**** Usable variables ****/
+    //! The stripes the keys are split between
+    private final Stripe<T>[] stripes;
+    //! stripes.length - 1 (the number of stripes is a power of two)
+    private final int stripe_mask;
+    //! The number of hash bits used to pick the stripe
+    private final int stripe_bits;
+    //! The number of key-value pairs contained
+    private final LongAdder entry_count;
+    //! Sentinel before the first node of the insertion order list
+    private final Node<T> head;
+    //! The last node of the list (or one a few nodes before it)
+    private final AtomicReference<Node<T>> tail;
+    //! Each thread's 'each()' position: the last node it returned
+    private final ThreadLocal<Node<T>> each_pointer;
+
+    /**
+     * @brief creates an empty array with a few stripes per core
+     **/
+    public ConcurrentPHPArray() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    } /* ConcurrentPHPArray() */
+
+    /**
+     * @brief creates an empty array with a given number of stripes
+     * @param stripe_count the number of locks (rounded up to a power of two),
+     *  more stripes let more writer threads work at once
+     **/
+    @SuppressWarnings("unchecked")
+    public ConcurrentPHPArray(int stripe_count) {
+        int count = 1;
+        int bits = 0;
+        while (count < stripe_count) {
+            count *= 2;
+            ++bits;
+        }
+        stripes = (Stripe<T>[]) new Stripe<?>[count];
+        for (int i = 0; i < count; ++i) {
+            stripes[i] = new Stripe<T>();
+        }
+        stripe_mask = count - 1;
+        stripe_bits = bits;
+        entry_count = new LongAdder();
+
+        head = new Node<T>(null, 0, null);
+        tail = new AtomicReference<Node<T>>(head);
+        each_pointer = new ThreadLocal<Node<T>>() {
+            @Override
+            protected Node<T> initialValue() {
+                return head;
+            }
+        };
+    } /* ConcurrentPHPArray(stripe_count) */
+
+    /**
+     * @brief allows the insertion of a value with an integer key
+     * @param key the integer to use as a key
+     * @param val the value to associate with the key
+     * @details converts the integer to a string an puts that
+     **/
+    public void put(Integer key, T val) {
+        put(key.toString(), val);
+    } /* put(int, V) */
+
+    /**
+     * @brief insert a key value pair into the hash table
+     * @param key the string to use as the key in the table
+     * @param val the value to associate with the key (null unsets the key)
+     **/
+    public void put(String key, T val) {
+        if (val == null) {
+            unset(key);
+            return;
+        }
+        int hash = spread(key.hashCode());
+        Stripe<T> stripe = stripes[hash & stripe_mask];
+        synchronized (stripe) {
+            int slot = stripe.find(key, hash >>> stripe_bits);
+            if (slot >= 0) {
+                stripe.table[slot].value = val;
+                return;
+            }
+            Node<T> node = new Node<T>(key, hash >>> stripe_bits, val);
+            stripe.insert(node);
+            // Appending while holding the lock keeps a put and unset of the
+            // same key in order, the append itself doesn't need it
+            append(node);
+        }
+        entry_count.increment();
+    } /* put(String, V) */
+
+    /**
+     * @brief gets an integer key from the table
+     * @param key the key to retrieve
+     * @return the values associated with the key or null if it doesn't exist
+     **/
+    public T get(Integer key) {
+        return get(key.toString());
+    } /* get(int) */
+
+    /**
+     * @brief gets a key from the table
+     * @param key the key to retrieve
+     * @return the values associated with the key or null if it doesn't exist
+     **/
+    public T get(String key) {
+        int hash = spread(key.hashCode());
+        Stripe<T> stripe = stripes[hash & stripe_mask];
+        synchronized (stripe) {
+            int slot = stripe.find(key, hash >>> stripe_bits);
+            return slot < 0 ? null : stripe.table[slot].value;
+        }
+    } /* get(String) */
+
+    /**
+     * @brief unsets a value from the table by an integer key
+     * @param key the key to unset in the table
+     **/
+    public void unset(Integer key) {
+        unset(key.toString());
+    } /* unset(Integer) */
+
+    /**
+     * @brief unsets a value from the table by a key
+     * @param key the key to unset in the table
+     **/
+    public void unset(String key) {
+        int hash = spread(key.hashCode());
+        Stripe<T> stripe = stripes[hash & stripe_mask];
+        synchronized (stripe) {
+            int slot = stripe.find(key, hash >>> stripe_bits);
+            if (slot < 0) {
+                return;
+            }
+            // A node without a value is dead and will be skipped (and unlinked)
+            //  by the next traversal that reaches it
+            stripe.table[slot].value = null;
+            stripe.remove(slot);
+        }
+        entry_count.decrement();
+    } /* unset(String) */
+
+    /**
+     * @brief gets the number of entries in the table
+     * @return the entry_count (exact only when no thread is changing it)
+     **/
+    public int length() {
+        return entry_count.intValue();
+    } /* length */
+
+    /**
+     * @brief gets a list of keys
+     * @return an ArrayList of keys in the table in insertion order
+     **/
+    public ArrayList<String> keys() {
+        ArrayList<String> result = new ArrayList<String>();
+        for (Node<T> it = nextLive(head); it != null; it = nextLive(it)) {
+            result.add(it.key);
+        }
+        return result;
+    } /* keys */
+
+    /**
+     * @brief gets a list of values
+     * @return an ArrayList of values in the table in insertion order
+     **/
+    public ArrayList<T> values() {
+        ArrayList<T> result = new ArrayList<T>();
+        for (Node<T> it = nextLive(head); it != null; it = nextLive(it)) {
+            T value = it.value;
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    } /* values */
+
+    /*********************************/
+    /**** Internal List Functions ****/
+    /*********************************/
+    /**
+     * @brief appends a node to the end of the insertion order list
+     * @param node the node to append
+     **/
+    private void append(Node<T> node) {
+        while (true) {
+            Node<T> last = tail.get();
+            Node<T> after = last.next;
+            if (after != null) {
+                // tail is behind, help move it along and try again
+                tail.compareAndSet(last, after);
+            } else if (NEXT.compareAndSet(last, null, node)) {
+                tail.compareAndSet(last, node);
+                return;
+            }
+        }
+    } /* append */
+
+    /**
+     * @brief finds the first live node after a node
+     * @param pred the node to start after
+     * @return the next node that has a value or null at the end of the list
+     * @details dead nodes skipped along the way are unlinked, except the last
+     *  node of the list which appends still need to link onto
+     **/
+    private Node<T> nextLive(Node<T> pred) {
+        Node<T> node = pred.next;
+        while (node != null && node.value == null) {
+            Node<T> after = node.next;
+            if (after == null) {
+                return null;
+            }
+            NEXT.compareAndSet(pred, node, after);
+            node = after;
+        }
+        return node;
+    } /* nextLive */
+
+    /**
+     * @brief mixes the high bits of a hash code into the low ones
+     * @param hash the key's hashCode()
+     * @return the hash to pick the stripe and slot with
+     **/
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    } /* spread */
+
+    /**
+     * @brief a key value pair, both an entry of a stripe and a list node
+     **/
+    private static class Node<T> {
+        //! The key
+        final String key;
+        //! The hash bits left after picking the stripe
+        final int hash;
+        //! The value, null once the key has been unset
+        volatile T value;
+        //! The next node in insertion order
+        volatile Node<T> next;
+
+        /**
+         * @brief creates an unlinked node
+         * @param key the key
+         * @param hash the hash bits used within the stripe
+         * @param value the value
+         **/
+        Node(String key, int hash, T value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        } /* Node(key, hash, value) */
+    } /* Node<T> */
+
+    /**
+     * @brief one lock's share of the keys, a linear probing table
+     * @details every method must be called while synchronized on the stripe
+     **/
+    private static class Stripe<T> {
+        //! The nodes, by slot
+        Node<T>[] table;
+        //! The number of nodes in the table
+        int count;
+
+        /**
+         * @brief creates an empty stripe
+         **/
+        Stripe() {
+            table = newTable(STRIPE_CAPACITY);
+            count = 0;
+        }
+
+        /**
+         * @brief finds the slot holding a key
+         * @param key the key
+         * @param hash the key's hash bits within the stripe
+         * @return the slot or -1 if it isn't there
+         **/
+        int find(String key, int hash) {
+            int mask = table.length - 1;
+            for (int i = hash & mask; table[i] != null; i = (i + 1) & mask) {
+                if (table[i].hash == hash && table[i].key.equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @brief adds a node whose key isn't in the table yet
+         * @param node the node to add
+         **/
+        void insert(Node<T> node) {
+            if (count >= table.length / INCREASE_SIZE_THRESHOLD) {
+                grow();
+            }
+            place(table, node);
+            ++count;
+        }
+
+        /**
+         * @brief removes the node in a slot, shifting the rest of its
+         *  cluster back so no probe sequence is broken
+         * @param slot the slot to empty
+         **/
+        void remove(int slot) {
+            int mask = table.length - 1;
+            int hole = slot;
+            table[hole] = null;
+            for (int i = (slot + 1) & mask; table[i] != null; i = (i + 1) & mask) {
+                int home = table[i].hash & mask;
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    table[hole] = table[i];
+                    table[i] = null;
+                    hole = i;
+                }
+            }
+            --count;
+        }
+
+        /**
+         * @brief doubles the size of the table
+         **/
+        private void grow() {
+            Node<T>[] bigger = newTable(table.length * 2);
+            for (Node<T> node : table) {
+                if (node != null) {
+                    place(bigger, node);
+                }
+            }
+            table = bigger;
+        }
+
+        /**
+         * @brief puts a node in the first free slot of its probe sequence
+         * @param into the table to put it in
+         * @param node the node
+         **/
+        private static <T> void place(Node<T>[] into, Node<T> node) {
+            int mask = into.length - 1;
+            int i;
+            for (i = node.hash & mask; into[i] != null; i = (i + 1) & mask);
+            into[i] = node;
+        }
+
+        /**
+         * @brief makes an empty table
+         * @param size the number of slots
+         * @return a new array (Java can't make a Node<T>[] directly)
+         **/
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] newTable(int size) {
+            return (Node<T>[]) new Node<?>[size];
+        }
+    } /* Stripe<T> */
+
+    /***************************************/
+    /**** Iteration Functions and types ****/
+    /***************************************/
+    /**
+     * @brief makes a weakly consistent iterator for this array
+     * @return an iterator over the values in order of insertion
+     **/
+    public Iterator<T> iterator() {
+        return new NodeIterator();
+    }
+
+    /**
+     * @brief a weakly consistent iterator over the values
+     * @details the value of each node is read when the iterator moves onto it
+     *  so a value unset after that is still returned
+     **/
+    private class NodeIterator implements Iterator<T> {
+        //! The node whose value is returned next (null at the end)
+        private Node<T> current;
+        //! Its value
+        private T current_value;
+
+        /**
+         * @brief creates an iterator at the first live node
+         **/
+        NodeIterator() {
+            advance(head);
+        }
+
+        /**
+         * @brief moves to the first live node after a node
+         * @param pred the node to start after
+         **/
+        private void advance(Node<T> pred) {
+            current = pred;
+            do {
+                current = nextLive(current);
+                current_value = current == null ? null : current.value;
+            } while (current != null && current_value == null);
+        }
+
+        /**
+         * @brief sees whether or not there are more values to iterate over
+         * @return true if there are more values, false if not
+         **/
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        /**
+         * @brief gets the next value and moves to the node after it
+         * @return the current value of the iterator
+         **/
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = current_value;
+            advance(current);
+            return result;
+        }
+    } /* NodeIterator */
+
+    /**
+     * @brief provides iteration over the pairs, separately for every thread
+     * @return a copy of the next live pair after the last one this thread
+     *  got, or null at the end (a later call will return any pairs appended
+     *  since)
+     **/
+    public PHPArray.Pair<T> each() {
+        Node<T> node = each_pointer.get();
+        while (true) {
+            node = nextLive(node);
+            if (node == null) {
+                return null;
+            }
+            T value = node.value;
+            if (value != null) {
+                each_pointer.set(node);
+                return new PHPArray.Pair<T>(node.key, value);
+            }
+        }
+    } /* each */
+
+    /**
+     * @brief resets the calling thread's 'each()' position to the head
+     **/
+    public void reset() {
+        each_pointer.set(head);
+    } /* reset */
+} /* ConcurrentPHPArray */
@@ -0,0 +1,189 @@
+/**
+* @brief implements a PHPArray with primitive long keys
+* @author Joshua Spisak <jjs231@pitt.edu>
+* @data 10/18/2019
+*
+* Same idea as PHPArray but specialized for long keys
+**/
+
+/**
+ * @brief an insertion ordered hash table from long keys to values
+ * @details the keys are kept in a long[] next to PrimitivePHPArray's values
+ *  and links, so numeric keys are never boxed or turned into Strings
+ **/
+public class LongPHPArray<T> extends PrimitivePHPArray<T> {
+    //! The key in each slot
+    private long[] keys;
+
+    /************************************/
+    /**** Basic Hash Table Functions ****/
+    /************************************/
+    /**
+     * @brief creates an empty hash table with INIT_CAPACITY entries
+     **/
+    public LongPHPArray() {
+        this(INIT_CAPACITY);
+    } /* LongPHPArray() */
+
+    /**
+     * @brief creates a LongPHPArray with a given size
+     * @param initial_capacity the starting size of the hash table (rounded
+     *  up to a power of two)
+     **/
+    public LongPHPArray(int initial_capacity) {
+        super(initial_capacity);
+    } /* LongPHPArray(initial_capacity) */
+
+    /**
+     * @brief insert a key value pair into the hash table
+     * @param key the key
+     * @param val the value to associate with the key (null unsets the key)
+     **/
+    public void put(long key, T val) {
+        // Handle Removing the value
+        if (val == null) {
+            unset(key);
+            return;
+        }
+
+        // increase table size based on parameters
+        growIfFull();
+
+        // find an empty slot in the table
+        int mask = table_size - 1;
+        int i;
+        for (i = hash(key); values[i] != null; i = (i + 1) & mask) {
+            // update the value if key already exists
+            if (keys[i] == key) {
+                values[i] = val;
+                return;
+            }
+        }
+
+        // Fill the slot and append it to the linked list
+        keys[i] = key;
+        append(i, val);
+    } /* put(long, T) */
+
+    /**
+     * @brief gets a key from the table
+     * @param key the key to retrieve
+     * @return the values associated with the key or null if it doesn't exist
+     **/
+    public T get(long key) {
+        int slot = find(key);
+        if (slot == NONE)
+            return null;
+        return valueAt(slot);
+    } /* get(long) */
+
+    /**
+     * @brief checks whether a key is in the table
+     * @param key the key to look for
+     * @return true if it has a value
+     **/
+    public boolean containsKey(long key) {
+        return find(key) != NONE;
+    } /* containsKey(long) */
+
+    /**
+     * @brief unsets a value from the table by a key
+     * @param key the key to unset in the table
+     **/
+    public void unset(long key) {
+        int i = find(key);
+        if (i != NONE)
+            remove(i);
+    } /* unset(long) */
+
+    /**
+     * @brief gets the keys
+     * @return an array of the keys in insertion order
+     **/
+    public long[] keys() {
+        long[] result = new long[entry_count];
+        int index = 0;
+        for (int it = head; it != NONE; it = next[it]) {
+            result[index++] = keys[it];
+        }
+        return result;
+    } /* keys */
+
+    /***************************************/
+    /**** Internal Hash Table Functions ****/
+    /***************************************/
+    /**
+     * @brief finds the slot holding a key
+     * @param key the key to look for
+     * @return the slot or NONE if it isn't in the table
+     **/
+    private int find(long key) {
+        int mask = table_size - 1;
+        for (int i = hash(key); values[i] != null; i = (i + 1) & mask)
+            if (keys[i] == key)
+                return i;
+        return NONE;
+    } /* find */
+
+    /**
+     * @brief hashs a key
+     * @return an int between 0 and table_size - 1 (withing range of table indexes)
+     **/
+    private int hash(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        h *= 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (table_size - 1);
+    } /* hash */
+
+    /**** Key storage for PrimitivePHPArray ****/
+    @Override
+    protected void allocateKeys(int capacity) {
+        keys = new long[capacity];
+    } /* allocateKeys */
+
+    @Override
+    protected Object keyArray() {
+        return keys;
+    } /* keyArray */
+
+    @Override
+    protected int hash(Object key_array, int slot) {
+        return hash(((long[]) key_array)[slot]);
+    } /* hash(key_array, slot) */
+
+    @Override
+    protected void copyKey(Object key_array, int from, int to) {
+        keys[to] = ((long[]) key_array)[from];
+    } /* copyKey */
+
+    /**
+     * @brief a key value pair returned by each()
+     **/
+    static public class Pair<T> {
+        //! The key
+        public long key;
+        //! The value
+        public T value;
+
+        /**
+         * @brief creates a new pair
+         * @param key the key of this pair
+         * @param value the value of this pair
+         **/
+        Pair(long key, T value) {
+            this.key = key;
+            this.value = value;
+        } /* Pair(key, value) */
+    } /* Pair<T> */
+
+    /**
+     * @brief provides iteration over the key value pairs
+     * @return a new pair for the next entry or null at the end
+     **/
+    public Pair<T> each() {
+        int current = nextEach();
+        if (current == NONE)
+            return null;
+        return new Pair<T>(keys[current], valueAt(current));
+    } /* each */
+} /* LongPHPArray */
@@ -6,6 +6,7 @@
 * This is based off of some templates provided by Sherif Khattab
 **/
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.ArrayList;
@@ -26,6 +27,15 @@ public class PHPArray<T> implements Iterable<T> {
     private static final int DECREASE_SIZE_THRESHOLD = 8;
     //! How much to decreases the size of the table when it reaches the threshold
     private static final int DECREASE_SIZE_RATIO = 2;
+    //! Marks a table entry whose pair was unset in tombstone mode
+    @SuppressWarnings("rawtypes")
+    private static final Pair TOMBSTONE = new Pair<Object>(null, null);
+    //! How many buckets of the old table each operation moves over while
+    //! an incremental resize is in progress
+    private static final int MIGRATE_BUCKETS = 4;
+    //! How many buckets each operation moves over while another resize is
+    //! waiting for the one in progress to finish
+    private static final int DRAIN_BUCKETS = 4 * MIGRATE_BUCKETS;
 
     /**** Usable variables ****/
     //! The number of key-value pairs contained
@@ -40,6 +50,23 @@ public class PHPArray<T> implements Iterable<T> {
     private Pair<T> tail;
     //! Pointer to entries on the linked list used to iterate via 'each()'
     private Pair<T> each_pointer;
+    //! Whether unset leaves a TOMBSTONE instead of rehashing the cluster
+    private boolean tombstones;
+    //! The number of TOMBSTONE entries in the table
+    private int tombstone_count;
+    //! Whether resize moves the pairs over a few buckets at a time
+    private boolean incremental;
+    //! Whether to print the resize/rehash trace (only in the default mode)
+    private boolean verbose;
+    //! The table being moved out of by an incremental resize (null if none)
+    private Pair<T>[] old_entries;
+    //! old_entries.length
+    private int old_size;
+    //! The next bucket of old_entries to move into entries
+    private int migrate_index;
+    //! Whether the sort family snapshots the pairs into an array and uses
+    //! Arrays.parallelSort instead of the linked list merge sort
+    private boolean parallel_sort;
 
     /************************************/
     /**** Basic Hash Table Functions ****/
@@ -56,18 +83,49 @@ public class PHPArray<T> implements Iterable<T> {
      * @param initial_capacity the starting size of the hash table
      **/
     public PHPArray(int initial_capacity) {
+        this(initial_capacity, false);
+    } /* PHPArray(initial_capacity) */
+
+    /**
+     * @brief creates a PHPArray with a given size and deletion mode
+     * @param initial_capacity the starting size of the hash table
+     * @param tombstones whether unset should mark the entry as deleted
+     *  instead of rehashing the rest of its cluster. This makes unset O(1)
+     *  (and silent), the deleted entries are cleared out the next time the
+     *  table is resized, which also happens once they fill it up.
+     **/
+    public PHPArray(int initial_capacity, boolean tombstones) {
+        this(initial_capacity, tombstones, false);
+    } /* PHPArray(initial_capacity, tombstones) */
+
+    /**
+     * @brief creates a PHPArray with a given size, deletion and resize mode
+     * @param initial_capacity the starting size of the hash table
+     * @param tombstones whether unset should mark the entry as deleted (see
+     *  above)
+     * @param incremental whether to resize incrementally: the old and new
+     *  tables both stay live and every put/get/unset moves MIGRATE_BUCKETS
+     *  buckets of the old one over (the same Pair nodes, so the insertion
+     *  order list isn't touched). No operation has to stop and rebuild the
+     *  whole table. Keys still in the old table are found there, and keys
+     *  unset from it leave a TOMBSTONE behind so the rest of its clusters
+     *  can still be found.
+     **/
+    public PHPArray(int initial_capacity, boolean tombstones, boolean incremental) {
         // Set up the has table
         table_size = initial_capacity;
+        this.tombstones = tombstones;
+        this.incremental = incremental;
+        verbose = !tombstones && !incremental;
+        tombstone_count = 0;
+        old_entries = null;
 
-        // TODO(joshua.spisak): figure out how to make this prettier
-        @SuppressWarnings("unchecked")
-        Pair<T>[] temp = (Pair<T>[]) new Pair[table_size];
-        entries = temp;
+        entries = newPairArray(table_size);
 
         // Set up the linked list
         head = tail = null;
         entry_count = 0;
-    } /* PHPArray(initial_capacity) */
+    } /* PHPArray(initial_capacity, tombstones, incremental) */
 
     /**
      * @brief allows the insertion of a value with an integer key
@@ -89,19 +147,41 @@ public class PHPArray<T> implements Iterable<T> {
         if (val == null)
             unset(key);
 
-        // increase table size based on parameters
+        migrate(MIGRATE_BUCKETS);
+
+        // increase table size based on parameters (tombstones fill the table
+        // too, if there are enough of them clearing them out is enough)
         if (entry_count >= table_size / INCREASE_SIZE_THRESHOLD)
             resize(INCREASE_SIZE_RATIO * table_size);
+        else if (entry_count + tombstone_count >= table_size / INCREASE_SIZE_THRESHOLD)
+            resize(table_size);
 
-        // find an empty entry in the table
+        // update the value if the key hasn't been moved out of the old table
+        int old_index = findOld(key);
+        if (old_index >= 0) {
+            old_entries[old_index].value = val;
+            return;
+        }
+
+        // find an empty entry in the table (reusing the first tombstone)
         int i;
+        int reuse = -1;
         for (i = hash(key); entries[i] != null; i = (i + 1) % table_size) {
+            if (entries[i] == TOMBSTONE) {
+                if (reuse < 0)
+                    reuse = i;
+                continue;
+            }
             // update the value if key already exists
             if (entries[i].key.equals(key)) {
                 entries[i].value = val;
                 return;
             }
         }
+        if (reuse >= 0) {
+            i = reuse;
+            --tombstone_count;
+        }
 
         // Create the new entry
         entries[i] = new Pair<T>(key, val);
@@ -133,9 +213,13 @@ public class PHPArray<T> implements Iterable<T> {
      * @return the values associated with the key or null if it doesn't exist
      **/
     public T get(String key) {
-        for (int i = hash(key); entries[i] != null; i = (i + 1) % entry_count)
-            if (entries[i].key.equals(key))
+        migrate(MIGRATE_BUCKETS);
+        for (int i = hash(key); entries[i] != null; i = (i + 1) % table_size)
+            if (entries[i] != TOMBSTONE && entries[i].key.equals(key))
                 return entries[i].value;
+        int old_index = findOld(key);
+        if (old_index >= 0)
+            return old_entries[old_index].value;
         return null;
     } /* get(string) */
 
@@ -157,31 +241,33 @@ public class PHPArray<T> implements Iterable<T> {
         if (get(key) == null)
             return;
 
+        // A key still in the old table is replaced by a tombstone there
+        int old_index = findOld(key);
+        if (old_index >= 0) {
+            unlink(old_entries[old_index]);
+            old_entries[old_index] = tombstone();
+            --entry_count;
+            return;
+        }
+
         // find where the key is (i)
         int i;
-        for(i = hash(key); !key.equals(entries[i].key); i = (i + 1) % table_size);
+        for(i = hash(key); entries[i] == TOMBSTONE || !key.equals(entries[i].key); i = (i + 1) % table_size);
 
         // delete node from hash table
         Pair<T> toDelete = entries[i];
         entries[i] = null;
+        if (tombstones) {
+            entries[i] = tombstone();
+            ++tombstone_count;
+        }
 
         // delete node from linked list
-        if(toDelete == head) {
-            head = toDelete.next;
-        }
-        if(toDelete == tail) {
-            tail = toDelete.prev;
-        }
-        if(toDelete.prev != null) {
-            toDelete.prev.next = toDelete.next;
-        }
-        if(toDelete.next != null) {
-            toDelete.next.prev = toDelete.prev;
-        }
+        unlink(toDelete);
 
-        // rehash all keys in same cluster
+        // rehash all keys in same cluster (not needed with a tombstone)
         i = (i + 1) % table_size;
-        while (entries[i] != null) {
+        while (!tombstones && entries[i] != null) {
             // delete and reinsert
             Pair<T> nodeToRehash = entries[i];
             entries[i] = null;
@@ -250,10 +336,13 @@ public class PHPArray<T> implements Iterable<T> {
      * @brief prints the contents of the hash table (utility function)
      **/
     public void showTable() {
+        finishMigration();
         System.out.println("\tRaw Hash Table Contents:");
         for(int i = 0; i < entries.length; ++i) {
             if(entries[i] == null)
                 System.out.println(i + ": null");
+            else if(entries[i] == TOMBSTONE)
+                System.out.println(i + ": deleted");
             else
                 System.out.println(i + ": Key: " + entries[i].key + " Value: " + entries[i].value);
         }
@@ -265,7 +354,7 @@ public class PHPArray<T> implements Iterable<T> {
      **/
     @SuppressWarnings("unchecked")
     public PHPArray<String> array_flip() {
-        PHPArray<String> temp = new PHPArray<String>(table_size);
+        PHPArray<String> temp = new PHPArray<String>(table_size, tombstones, incremental);
 
         for(Pair<String> it = (Pair<String>)head; it != null; it = it.next) {
             temp.put((String)it.value, it.key);
@@ -280,12 +369,27 @@ public class PHPArray<T> implements Iterable<T> {
      * @brief resizes the table to a higher capacity
      * @param new_capacity the new capacity of the table
      * @details creates a new hash table of the new capacity, inserts all the
-     *  current pairs in order then adopts the new hash tables values
+     *  current pairs in order then adopts the new hash tables values. Any
+     *  tombstones are left behind. In incremental mode this only starts
+     *  moving the pairs (see migrate()).
      **/
     private void resize(int new_capacity) {
-        System.out.println("\t\tSize: " + entry_count + " -- resizing array from " + table_size + " to " + new_capacity);
+        if (incremental) {
+            // Only one old table is kept, so a resize that comes while the
+            // last one is still moving waits for it. Every operation that
+            // asks moves DRAIN_BUCKETS more buckets and the table stays over
+            // its threshold for a bit, old_size / DRAIN_BUCKETS puts at most
+            // (old_size is at most twice table_size, so that's table_size / 8).
+            if (old_entries != null)
+                migrate(DRAIN_BUCKETS);
+            if (old_entries == null)
+                startMigration(new_capacity);
+            return;
+        }
+        if (verbose)
+            System.out.println("\t\tSize: " + entry_count + " -- resizing array from " + table_size + " to " + new_capacity);
         // sim a hash table then adopt the values contained
-        PHPArray<T> sim_hash_table = new PHPArray<T>(new_capacity);
+        PHPArray<T> sim_hash_table = new PHPArray<T>(new_capacity, tombstones);
 
         // Save the initial each_pointer then use each()
         Pair<T> initial_each_pointer = each_pointer;
@@ -306,14 +410,116 @@ public class PHPArray<T> implements Iterable<T> {
         head            = sim_hash_table.head;
         tail            = sim_hash_table.tail;
         each_pointer    = sim_hash_table.each_pointer;
+        tombstone_count = sim_hash_table.tombstone_count;
     } /* resize */
 
+    /**
+     * @brief starts an incremental resize
+     * @param new_capacity the new capacity of the table
+     * @details makes the current table the old one and starts over with an
+     *  empty table, there mustn't be a resize in progress already
+     **/
+    private void startMigration(int new_capacity) {
+        old_entries = entries;
+        old_size = table_size;
+        migrate_index = 0;
+        table_size = new_capacity;
+        entries = newPairArray(table_size);
+        tombstone_count = 0;
+    } /* startMigration */
+
+    /**
+     * @brief moves a few buckets of the old table into the current one
+     * @param buckets the number of buckets to move
+     * @details a moved bucket is left as a tombstone in the old table so keys
+     *  further along its cluster can still be found. Once every bucket has
+     *  been moved the old table is dropped.
+     **/
+    private void migrate(int buckets) {
+        if (old_entries == null)
+            return;
+        for (; buckets > 0 && migrate_index < old_size; --buckets, ++migrate_index) {
+            Pair<T> node = old_entries[migrate_index];
+            if (node == null || node == TOMBSTONE)
+                continue;
+            int i;
+            for (i = hash(node.key); entries[i] != null && entries[i] != TOMBSTONE; i = (i + 1) % table_size);
+            if (entries[i] == TOMBSTONE)
+                --tombstone_count;
+            entries[i] = node;
+            old_entries[migrate_index] = tombstone();
+        }
+        if (migrate_index == old_size)
+            old_entries = null;
+    } /* migrate */
+
+    /**
+     * @brief moves everything left in the old table into the current one
+     **/
+    private void finishMigration() {
+        if (old_entries != null)
+            migrate(old_size);
+    } /* finishMigration */
+
+    /**
+     * @brief finds a key that hasn't been moved out of the old table yet
+     * @param key the key to look for
+     * @return its index in old_entries or -1 if it isn't there
+     **/
+    private int findOld(String key) {
+        if (old_entries == null)
+            return -1;
+        for (int i = hashIn(key, old_size); old_entries[i] != null; i = (i + 1) % old_size)
+            if (old_entries[i] != TOMBSTONE && old_entries[i].key.equals(key))
+                return i;
+        return -1;
+    } /* findOld */
+
+    /**
+     * @brief takes a node out of the insertion order list
+     * @param node the node to remove
+     **/
+    private void unlink(Pair<T> node) {
+        if(node == head) {
+            head = node.next;
+        }
+        if(node == tail) {
+            tail = node.prev;
+        }
+        if(node.prev != null) {
+            node.prev.next = node.next;
+        }
+        if(node.next != null) {
+            node.next.prev = node.prev;
+        }
+    } /* unlink */
+
+    /**
+     * @brief gets the TOMBSTONE marker typed for this table
+     * @return TOMBSTONE
+     **/
+    @SuppressWarnings("unchecked")
+    private Pair<T> tombstone() {
+        return (Pair<T>) TOMBSTONE;
+    } /* tombstone */
+
+    /**
+     * @brief makes an empty table of pairs
+     * @param size the number of entries
+     * @return a new array (Java can't make a Pair<E>[] directly)
+     **/
+    @SuppressWarnings("unchecked")
+    private static <E> Pair<E>[] newPairArray(int size) {
+        return (Pair<E>[]) new Pair<?>[size];
+    } /* newPairArray */
+
     /**
      * @brief rehashes a node after a prior node in the cluster has been removed
      * @param node the node to rehash into the table
      **/
     private void rehash(Pair<T> node){
-        System.out.println("\t\tKey " + node.key + " rehashed...\n");
+        if (verbose)
+            System.out.println("\t\tKey " + node.key + " rehashed...\n");
         int i;
         // Find the next empty entry in the table
         for (i = hash(node.key); entries[i] != null; i = (i + 1) % table_size);
@@ -325,9 +531,17 @@ public class PHPArray<T> implements Iterable<T> {
      * @return an int between 0 and table_size - 1 (withing range of table indexes)
      **/
     private int hash(String key) {
-        return (key.hashCode() & 0x7fffffff) % table_size;
+        return hashIn(key, table_size);
     } /* hash */
 
+    /**
+     * @brief hashs a key for a table of a certain size
+     * @return an int between 0 and size - 1
+     **/
+    private static int hashIn(String key, int size) {
+        return (key.hashCode() & 0x7fffffff) % size;
+    } /* hashIn */
+
     /**
      * @brief pair of keys/values in a linked list of values in the array
      **/
@@ -552,6 +766,17 @@ public class PHPArray<T> implements Iterable<T> {
     }
 
 
+    /**
+     * @brief picks how sort, asort, ksort, krsort, usort and uasort sort
+     * @param parallel true to copy the pairs into an array, sort that with
+     *  Arrays.parallelSort (a stable merge sort split across the common
+     *  fork-join pool) and relink the list in one pass. false (the default)
+     *  for the single threaded linked list merge sort.
+     **/
+    public void setParallelSort(boolean parallel) {
+        parallel_sort = parallel;
+    } /* setParallelSort */
+
     /**
      * @brief executes an inverse BFS merge sort (if thats a thing...)
      * @param comparer the function used to compare the values
@@ -561,6 +786,11 @@ public class PHPArray<T> implements Iterable<T> {
     public <C extends Comparable<? super C>> void
     executeMergeSort(Comparator<Pair<C>> comparer, boolean keep_keys) {
         boolean rename_keys = !keep_keys; // makes the code more readable
+        finishMigration();
+        if (parallel_sort) {
+            executeParallelSort(comparer, keep_keys);
+            return;
+        }
         SortedList<C> root = null;
         Comparable t = (Comparable) head.value;
         root = buildSortLists((Pair<C>)head, comparer);
@@ -597,6 +827,47 @@ public class PHPArray<T> implements Iterable<T> {
         this.tail = (Pair<T>)root.tail;
     }
 
+    /**
+     * @brief sorts an array snapshot of the pairs then relinks them
+     * @param comparer the function used to compare the values
+     * @param keep_keys whether or not to rename the keys 0 -> n in order
+     * @details no SortedList wrappers or new pairs are made, renamed keys are
+     *  set on the existing pairs which are then put back in a cleared table
+     **/
+    @SuppressWarnings("unchecked")
+    private <C extends Comparable<? super C>> void
+    executeParallelSort(Comparator<Pair<C>> comparer, boolean keep_keys) {
+        if (head == null)
+            return;
+        Pair<C>[] nodes = newPairArray(entry_count);
+        int count = 0;
+        for (Pair<T> it = head; it != null; it = it.next) {
+            nodes[count++] = (Pair<C>) it;
+        }
+        Arrays.parallelSort(nodes, 0, count, comparer);
+
+        // Relink the list in the sorted order
+        for (int i = 0; i < count; ++i) {
+            nodes[i].prev = i > 0 ? nodes[i - 1] : null;
+            nodes[i].next = i + 1 < count ? nodes[i + 1] : null;
+        }
+        head = (Pair<T>) nodes[0];
+        tail = (Pair<T>) nodes[count - 1];
+
+        if (!keep_keys) {
+            // The keys change so every pair hashes somewhere else
+            entries = newPairArray(table_size);
+            tombstone_count = 0;
+            for (int i = 0; i < count; ++i) {
+                nodes[i].key = Integer.toString(i);
+                int slot;
+                for (slot = hash(nodes[i].key); entries[slot] != null; slot = (slot + 1) % table_size);
+                entries[slot] = (Pair<T>) nodes[i];
+            }
+            each_pointer = head;
+        }
+    } /* executeParallelSort */
+
     /**
      * @brief combines sorted pairs into a sorted list
      * @param list_a one of the sorted lists to combine
@@ -609,7 +880,7 @@ public class PHPArray<T> implements Iterable<T> {
     combineSortedPairs(Pair<C> list_a, Pair<C> list_b, Comparator<Pair<C>> comparer, boolean rename_keys) {
         PHPArray<T> sim_hash_table = null;
         if(rename_keys) {
-            sim_hash_table = new PHPArray<T>(table_size);
+            sim_hash_table = new PHPArray<T>(table_size, tombstones, incremental);
         }
         Pair<C> result_head = null;
         Pair<C> result_current = null;
@@ -662,6 +933,10 @@ public class PHPArray<T> implements Iterable<T> {
             head            = sim_hash_table.head;
             tail            = sim_hash_table.tail;
             each_pointer    = sim_hash_table.each_pointer;
+            tombstone_count = sim_hash_table.tombstone_count;
+            old_entries     = sim_hash_table.old_entries;
+            old_size        = sim_hash_table.old_size;
+            migrate_index   = sim_hash_table.migrate_index;
             return null;
         }
         return new SortedList<C>(result_head, result_current);
@@ -0,0 +1,364 @@
+/**
+* @brief the parts of IntPHPArray and LongPHPArray that don't depend on the key type
+* @author Joshua Spisak <jjs231@pitt.edu>
+* @data 10/18/2019
+*
+* Same idea as PHPArray but with the keys left to a subclass
+**/
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.ArrayList;
+
+/**
+ * @brief an insertion ordered hash table whose keys are kept by a subclass
+ * @details instead of turning each key into a String and allocating a Pair
+ *  per entry, everything is kept in parallel arrays indexed by table slot:
+ *  the keys in a primitive array owned by the subclass, the values in an
+ *  Object[] and the insertion order as a doubly linked list of slot numbers
+ *  in int[] next/prev. A slot is empty when its value is null (putting a
+ *  null value unsets the key, like PHPArray). Linear probing is used and
+ *  deletes shift the rest of the cluster back (fixing the links of any entry
+ *  that moves) so no tombstones are left behind.
+ *
+ *  A subclass probes for its keys with hash() and the table, then calls
+ *  append() and remove() so this class can keep the list and the table
+ *  size. The key array is passed around as an Object so the shifting and
+ *  resizing here don't have to know its type.
+ **/
+public abstract class PrimitivePHPArray<T> implements Iterable<T> {
+    /**** Some static parameters ****/
+    //! The inital capacity for a hash table
+    protected static final int INIT_CAPACITY = 4;
+    //! The threshold at which the table should be resized
+    //! triggerd by (entry_count >= table_size / INCREASE_SIZE_THRESHOLD).
+    private static final int INCREASE_SIZE_THRESHOLD = 2;
+    //! How much to increase the size of the table when it reaches the threshold
+    private static final int INCREASE_SIZE_RATIO = 2;
+    //! The threshold at which the table should be resized
+    //! triggered by (entry_count <= table_size / DECREASE_SIZE_RATIO).
+    private static final int DECREASE_SIZE_THRESHOLD = 8;
+    //! How much to decreases the size of the table when it reaches the threshold
+    private static final int DECREASE_SIZE_RATIO = 2;
+    //! Marks the end of the linked list
+    protected static final int NONE = -1;
+
+    /**** Usable variables ****/
+    //! The number of key-value pairs contained
+    protected int entry_count;
+    //! The size of the table (always a power of two)
+    protected int table_size;
+    //! The value in each slot, null if the slot is empty
+    protected Object[] values;
+    //! The slot inserted after each slot (NONE for the tail)
+    protected int[] next;
+    //! The slot inserted before each slot (NONE for the head)
+    private int[] prev;
+    //! Slot of the first entry inserted (NONE if empty)
+    protected int head;
+    //! Slot of the last entry inserted (NONE if empty)
+    private int tail;
+    //! Slot of the entry 'each()' returns next (NONE when done)
+    private int each_pointer;
+    //! Bumped whenever entries are added, removed or moved between slots
+    private int mod_count;
+
+    /**
+     * @brief creates an empty hash table
+     * @param initial_capacity the starting size of the hash table (rounded
+     *  up to a power of two)
+     **/
+    protected PrimitivePHPArray(int initial_capacity) {
+        allocate(tableSizeFor(initial_capacity));
+        head = tail = each_pointer = NONE;
+        entry_count = 0;
+    } /* PrimitivePHPArray(initial_capacity) */
+
+    /**** Key storage, implemented by the subclass ****/
+    /**
+     * @brief makes a new key array, replacing the current one
+     * @param capacity the number of slots
+     **/
+    protected abstract void allocateKeys(int capacity);
+
+    /**
+     * @brief gets the current key array
+     **/
+    protected abstract Object keyArray();
+
+    /**
+     * @brief hashs a key in a key array for the current table size
+     * @param key_array the array holding the key
+     * @param slot the slot of the key in key_array
+     * @return an int between 0 and table_size - 1
+     **/
+    protected abstract int hash(Object key_array, int slot);
+
+    /**
+     * @brief copies a key into the current key array
+     * @param key_array the array holding the key
+     * @param from the slot of the key in key_array
+     * @param to the slot to copy it to
+     **/
+    protected abstract void copyKey(Object key_array, int from, int to);
+
+    /**
+     * @brief gets the number of entries in the table
+     * @return the entry_count
+     **/
+    public int length() {
+        return entry_count;
+    } /* length */
+
+    /**
+     * @brief gets a list of values
+     * @return an ArrayList of values in the table
+     **/
+    @SuppressWarnings("unchecked")
+    public ArrayList<T> values() {
+        ArrayList<T> result = new ArrayList<T>(entry_count);
+        for (int it = head; it != NONE; it = next[it]) {
+            result.add((T) values[it]);
+        }
+        return result;
+    } /* values */
+
+    /***************************************/
+    /**** Internal Hash Table Functions ****/
+    /***************************************/
+    /**
+     * @brief grows the table if another entry would go over the threshold
+     * @details call it before probing for an empty slot, since it moves
+     *  every entry
+     **/
+    protected void growIfFull() {
+        if (entry_count >= table_size / INCREASE_SIZE_THRESHOLD)
+            resize(INCREASE_SIZE_RATIO * table_size);
+    } /* growIfFull */
+
+    /**
+     * @brief fills an empty slot whose key is set and appends it to the list
+     * @param slot the slot the subclass put the key in
+     * @param val the value for the slot
+     **/
+    protected void append(int slot, Object val) {
+        values[slot] = val;
+        next[slot] = NONE;
+        prev[slot] = tail;
+        if (head == NONE) {
+            each_pointer = head = slot;
+        } else {
+            next[tail] = slot;
+        }
+        tail = slot;
+        ++entry_count;
+        ++mod_count;
+    } /* append */
+
+    /**
+     * @brief empties a slot and takes it out of the list
+     * @param i the slot to remove
+     **/
+    protected void remove(int i) {
+        // delete slot from linked list
+        unlink(i);
+        if (each_pointer == i)
+            each_pointer = next[i];
+        values[i] = null;
+        --entry_count;
+        ++mod_count;
+
+        // shift back the rest of the cluster: an entry can fill the hole
+        // unless its home slot is (cyclically) after the hole
+        Object keys = keyArray();
+        int mask = table_size - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys, j);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                move(j, hole);
+                hole = j;
+            }
+        }
+
+        // halves size of array if it's 12.5% full or less
+        if (entry_count > 0 && entry_count <= table_size / DECREASE_SIZE_THRESHOLD
+                && table_size > INIT_CAPACITY)
+            resize(table_size / DECREASE_SIZE_RATIO);
+    } /* remove */
+
+    /**
+     * @brief gets the value in a full slot
+     * @param slot the slot
+     **/
+    @SuppressWarnings("unchecked")
+    protected T valueAt(int slot) {
+        return (T) values[slot];
+    } /* valueAt */
+
+    /**
+     * @brief takes a slot out of the linked list
+     * @param slot the slot to unlink
+     **/
+    private void unlink(int slot) {
+        if (prev[slot] == NONE)
+            head = next[slot];
+        else
+            next[prev[slot]] = next[slot];
+        if (next[slot] == NONE)
+            tail = prev[slot];
+        else
+            prev[next[slot]] = prev[slot];
+    } /* unlink */
+
+    /**
+     * @brief moves an entry to an empty slot, keeping its place in the list
+     * @param from the slot holding the entry
+     * @param to the empty slot to move it to
+     **/
+    private void move(int from, int to) {
+        copyKey(keyArray(), from, to);
+        values[to] = values[from];
+        next[to] = next[from];
+        prev[to] = prev[from];
+        if (prev[to] == NONE)
+            head = to;
+        else
+            next[prev[to]] = to;
+        if (next[to] == NONE)
+            tail = to;
+        else
+            prev[next[to]] = to;
+        if (each_pointer == from)
+            each_pointer = to;
+        values[from] = null;
+    } /* move */
+
+    /**
+     * @brief resizes the table
+     * @param new_capacity the new capacity of the table (a power of two)
+     * @details walks the entries in insertion order and inserts them into
+     *  new arrays, so the order (and the each() position) is kept
+     **/
+    private void resize(int new_capacity) {
+        Object old_keys = keyArray();
+        Object[] old_values = values;
+        int[] old_next = next;
+        int old_head = head;
+        int old_each_pointer = each_pointer;
+
+        allocate(new_capacity);
+        head = tail = each_pointer = NONE;
+        ++mod_count;
+        int mask = table_size - 1;
+        for (int it = old_head; it != NONE; it = old_next[it]) {
+            int i;
+            for (i = hash(old_keys, it); values[i] != null; i = (i + 1) & mask);
+            copyKey(old_keys, it, i);
+            values[i] = old_values[it];
+            next[i] = NONE;
+            prev[i] = tail;
+            if (head == NONE)
+                head = i;
+            else
+                next[tail] = i;
+            tail = i;
+            if (it == old_each_pointer)
+                each_pointer = i;
+        }
+    } /* resize */
+
+    /**
+     * @brief makes new empty arrays
+     * @param capacity the number of slots
+     **/
+    private void allocate(int capacity) {
+        table_size = capacity;
+        allocateKeys(capacity);
+        values = new Object[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+    } /* allocate */
+
+    /**
+     * @brief rounds a capacity up to a power of two
+     * @param capacity the requested capacity
+     * @return the table size to use
+     **/
+    private static int tableSizeFor(int capacity) {
+        int size = INIT_CAPACITY;
+        while (size < capacity)
+            size *= 2;
+        return size;
+    } /* tableSizeFor */
+
+    /***************************************/
+    /**** Iteration Functions and types ****/
+    /***************************************/
+    /**
+     * @brief makes an iterator for this array
+     * @return an iterator for this data starting at the head (in order of insertion)
+     **/
+    public Iterator<T> iterator() {
+        return new SlotIterator();
+    }
+
+    /**
+     * @brief an iterator over the values in insertion order
+     * @details it holds a slot number, and unset() can shift entries between
+     *  slots, so it fails fast if the table changes under it (each() is the
+     *  way to unset while walking the table)
+     **/
+    private class SlotIterator implements Iterator<T> {
+        //! The slot of the next value
+        private int current = head;
+        //! The mod_count the slot numbers are good for
+        private final int expected_mod_count = mod_count;
+
+        /**
+         * @brief sees whether or not there are more values to iterate over
+         * @return true if there are more values, false if not
+         **/
+        public boolean hasNext() {
+            return current != NONE;
+        }
+
+        /**
+         * @brief gets the next value and moves to the slot after it
+         * @return the current value of the iterator
+         * @throws ConcurrentModificationException if entries were added,
+         *  removed or moved since the iterator was made
+         **/
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (mod_count != expected_mod_count) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = (T) values[current];
+            current = next[current];
+            return result;
+        }
+    } /* SlotIterator */
+
+    /**
+     * @brief moves the 'each()' pointer along
+     * @return the slot each() should return or NONE at the end
+     **/
+    protected int nextEach() {
+        int current = each_pointer;
+        if (current != NONE)
+            each_pointer = next[current];
+        return current;
+    } /* nextEach */
+
+    /**
+     * @brief resets the pointer for the 'each()' iterator to the head
+     **/
+    public void reset() {
+        each_pointer = head;
+    } /* reset */
+} /* PrimitivePHPArray */
@@ -1,7 +1,7 @@
 /******************************************************************************
  *  Compilation:  javac BinaryStdIn.java
  *  Execution:    java BinaryStdIn < input > output
- *  Dependencies: none
+ *  Dependencies: BitReader.java (word mode)
  *
  *  Supports reading binary data from standard input.
  *
@@ -41,6 +41,9 @@ public final class BinaryStdIn {
     private static int n;                   // number of bits left in buffer
     private static boolean isInitialized;   // has BinaryStdIn been called for first time?
 
+    private static boolean wordMode;        // read through a BitReader?
+    private static BitReader reader;        // reads in (word mode)
+
     // don't instantiate
     private BinaryStdIn() { }
 
@@ -49,10 +52,38 @@ public final class BinaryStdIn {
         in = new BufferedInputStream(System.in);
         buffer = 0;
         n = 0;
-        fillBuffer();
+        if (wordMode) reader = new BitReader(in);
+        else          fillBuffer();
         isInitialized = true;
     }
 
+   /**
+     * Switches between reading one bit at a time and word mode, where whole
+     * values are taken from a {@link BitReader}, which refills a 64-bit
+     * accumulator 32 bits at a time from a large byte buffer, itself read in
+     * bulk. The values read are the same either way.
+     * @param on whether to use word mode.
+     * @throws IllegalStateException if anything has been read since
+     *         standard input was opened.
+     */
+    public static void setWordMode(boolean on) {
+        if (isInitialized) throw new IllegalStateException("BinaryStdIn has already been read from");
+        wordMode = on;
+    }
+
+   /**
+     * Reads the next r bits as an int (word mode).
+     */
+    private static int readBits(int r) {
+        if (!isInitialized) initialize();
+        try {
+            return reader.readInt(r);
+        }
+        catch (IOException e) {
+            throw new NoSuchElementException("Reading from empty input stream");
+        }
+    }
+
     private static void fillBuffer() {
         try {
             buffer = in.read();
@@ -85,6 +116,14 @@ public final class BinaryStdIn {
      */
     public static boolean isEmpty() {
         if (!isInitialized) initialize();
+        if (wordMode) {
+            try {
+                return reader.isEmpty();
+            }
+            catch (IOException e) {
+                return true;
+            }
+        }
         return buffer == EOF;
     }
 
@@ -96,6 +135,7 @@ public final class BinaryStdIn {
      */
     public static boolean readBoolean() {
         if (isEmpty()) throw new NoSuchElementException("Reading from empty input stream");
+        if (wordMode) return readBits(1) == 1;
         n--;
         boolean bit = ((buffer >> n) & 1) == 1;
         if (n == 0) fillBuffer();
@@ -112,6 +152,7 @@ public final class BinaryStdIn {
      */
     public static char readChar() {
         if (isEmpty()) throw new NoSuchElementException("Reading from empty input stream");
+        if (wordMode) return (char) readBits(8);
 
         // special case when aligned byte
         if (n == 8) {
@@ -146,6 +187,7 @@ public final class BinaryStdIn {
 
         // optimize r = 8 case
         if (r == 8) return readChar();
+        if (wordMode) return (char) readBits(r);
 
         char x = 0;
         for (int i = 0; i < r; i++) {
@@ -220,6 +262,7 @@ public final class BinaryStdIn {
 
         // optimize r = 32 case
         if (r == 32) return readInt();
+        if (wordMode) return readBits(r);
 
         int x = 0;
         for (int i = 0; i < r; i++) {
@@ -1,7 +1,7 @@
 /******************************************************************************
  *  Compilation:  javac BinaryStdOut.java
  *  Execution:    java BinaryStdOut
- *  Dependencies: none
+ *  Dependencies: BitWriter.java (word mode)
  *
  *  Write binary data to standard output, either one 1-bit boolean,
  *  one 8-bit char, one 32-bit int, one 64-bit double, one 32-bit float,
@@ -35,6 +35,9 @@ public final class BinaryStdOut {
     private static int n;                     // number of bits remaining in buffer
     private static boolean isInitialized;     // has BinaryStdOut been called for first time?
 
+    private static boolean wordMode;          // write through a BitWriter?
+    private static BitWriter writer;          // writes to out (word mode)
+
     // don't instantiate
     private BinaryStdOut() { }
 
@@ -43,13 +46,46 @@ public final class BinaryStdOut {
         out = new BufferedOutputStream(System.out);
         buffer = 0;
         n = 0;
+        if (wordMode) writer = new BitWriter(out);
         isInitialized = true;
     }
 
+   /**
+     * Switches between writing one bit at a time and word mode, where whole
+     * values go to a {@link BitWriter}, which shifts them into a 64-bit
+     * accumulator that is moved into a large byte buffer 32 bits at a time
+     * and written out in bulk. The bits written are the same either way.
+     * @param on whether to use word mode.
+     * @throws IllegalStateException if anything has been written since
+     *         standard output was opened.
+     */
+    public static void setWordMode(boolean on) {
+        if (isInitialized) throw new IllegalStateException("BinaryStdOut has already been written to");
+        wordMode = on;
+    }
+
+   /**
+     * Writes the low r bits of x to standard output (word mode).
+     */
+    private static void writeBits(int x, int r) {
+        if (!isInitialized) initialize();
+
+        try {
+            writer.write(x, r);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
    /**
      * Writes the specified bit to standard output.
      */
     private static void writeBit(boolean bit) {
+        if (wordMode) {
+            writeBits(bit ? 1 : 0, 1);
+            return;
+        }
         if (!isInitialized) initialize();
 
         // add bit to buffer
@@ -69,6 +105,11 @@ public final class BinaryStdOut {
 
         assert x >= 0 && x < 256;
 
+        if (wordMode) {
+            writeBits(x, 8);
+            return;
+        }
+
         // optimized if byte-aligned
         if (n == 0) {
             try {
@@ -91,6 +132,17 @@ public final class BinaryStdOut {
     private static void clearBuffer() {
         if (!isInitialized) initialize();
 
+        if (wordMode) {
+            // pads the last byte with 0s and hands everything to out
+            try {
+                writer.flush();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         if (n == 0) return;
         if (n > 0) buffer <<= (8 - n);
         try {
@@ -174,6 +226,10 @@ public final class BinaryStdOut {
         }
         if (r < 1 || r > 32)        throw new IllegalArgumentException("Illegal value for r = " + r);
         if (x < 0 || x >= (1 << r)) throw new IllegalArgumentException("Illegal " + r + "-bit char = " + x);
+        if (wordMode) {
+            writeBits(x, r);
+            return;
+        }
         for (int i = 0; i < r; i++) {
             boolean bit = ((x >>> (r - i - 1)) & 1) == 1;
             writeBit(bit);
@@ -248,6 +304,10 @@ public final class BinaryStdOut {
         }
         if (r < 1 || r > 16) throw new IllegalArgumentException("Illegal value for r = " + r);
         if (x >= (1 << r))   throw new IllegalArgumentException("Illegal " + r + "-bit char = " + x);
+        if (wordMode) {
+            writeBits(x, r);
+            return;
+        }
         for (int i = 0; i < r; i++) {
             boolean bit = ((x >>> (r - i - 1)) & 1) == 1;
             writeBit(bit);
@@ -0,0 +1,90 @@
+/*************************************************************************
+ * @brief BitReader.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 11/04/2019
+ *
+ * Reads bits from any InputStream, an instance version of BinaryStdIn.
+ *************************************************************************/
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class BitReader {
+    //! Number of bytes read from the stream at once
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    //! Where the bytes come from
+    private final InputStream in;
+    //! Bytes read from in
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    //! Number of bytes in buffer
+    private int count;
+    //! Index of the next byte to use in buffer
+    private int position;
+    //! The bits not read yet, in the low bits
+    private long bits;
+    //! Number of bits in bits
+    private int bit_count;
+
+    /**
+     * @brief makes a reader
+     * @param in the stream to read from (it is never closed)
+     **/
+    public BitReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * @brief reads a value, most significant bit first
+     * @param r the number of bits to read, 1 to 32
+     * @return the value read
+     * @throws EOFException if the stream ends first
+     **/
+    public int readInt(int r) throws IOException {
+        if(r < 1 || r > 32) {
+            throw new IllegalArgumentException("Illegal value for r = " + r);
+        }
+        // bit_count < r <= 32 when refilling, so 32 more bits always fit
+        if(bit_count < r && count - position >= 4) {
+            bits = (bits << 32)
+                 | (buffer[position] & 0xffL) << 24 | (buffer[position + 1] & 0xffL) << 16
+                 | (buffer[position + 2] & 0xffL) << 8 | (buffer[position + 3] & 0xffL);
+            position += 4;
+            bit_count += 32;
+        }
+        while(bit_count < r) {
+            if(position == count && !fill()) {
+                throw new EOFException("Reading from empty input stream");
+            }
+            bits = (bits << 8) | (buffer[position++] & 0xff);
+            bit_count += 8;
+        }
+        bit_count -= r;
+        return (int) (bits >>> bit_count) & (int) ((1L << r) - 1);
+    } /* readInt(int r) */
+
+    /**
+     * @brief checks whether every bit has been read
+     * @return true if nothing is left in the reader or the stream
+     **/
+    public boolean isEmpty() throws IOException {
+        return bit_count == 0 && position == count && !fill();
+    } /* isEmpty() */
+
+    /**
+     * @brief refills the buffer from the stream
+     * @return false if the stream has ended
+     **/
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while(read == 0);
+        if(read < 0) {
+            return false;
+        }
+        count = read;
+        position = 0;
+        return true;
+    } /* fill() */
+} /* BitReader */
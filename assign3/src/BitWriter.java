@@ -0,0 +1,90 @@
+/*************************************************************************
+ * @brief BitWriter.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 11/04/2019
+ *
+ * Writes bits to any OutputStream, an instance version of BinaryStdOut.
+ *************************************************************************/
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class BitWriter {
+    //! Number of bytes collected before they're written to the stream
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    //! Where the bytes go
+    private final OutputStream out;
+    //! Bytes not written to out yet
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    //! Number of bytes in buffer
+    private int count;
+    //! The bits not in buffer yet, in the low bits
+    private long bits;
+    //! Number of bits in bits
+    private int bit_count;
+
+    /**
+     * @brief makes a writer
+     * @param out the stream to write to (it is never closed)
+     **/
+    public BitWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * @brief writes the low bits of a value, most significant bit first
+     * @param x the value to write
+     * @param r the number of bits to write, 1 to 32
+     **/
+    public void write(int x, int r) throws IOException {
+        if(r < 1 || r > 32) {
+            throw new IllegalArgumentException("Illegal value for r = " + r);
+        }
+        if(r < 32 && (x >>> r) != 0) {
+            throw new IllegalArgumentException("Illegal " + r + "-bit int = " + x);
+        }
+        // bit_count < 32 here, so all bit_count + r bits fit
+        bits = (bits << r) | (x & 0xffffffffL);
+        bit_count += r;
+        // move a whole 32 bits into the buffer at once
+        if(bit_count >= 32) {
+            if(count + 4 > buffer.length) {
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+            bit_count -= 32;
+            int word = (int) (bits >>> bit_count);
+            buffer[count++] = (byte) (word >>> 24);
+            buffer[count++] = (byte) (word >>> 16);
+            buffer[count++] = (byte) (word >>> 8);
+            buffer[count++] = (byte) word;
+        }
+    } /* write(int x, int r) */
+
+    /**
+     * @brief writes any bits left (padded with 0s to a byte) and flushes
+     *  everything to the stream
+     **/
+    public void flush() throws IOException {
+        // whole bytes first, then the rest padded with 0s
+        while(bit_count >= 8) {
+            bit_count -= 8;
+            if(count == buffer.length) {
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+            buffer[count++] = (byte) (bits >>> bit_count);
+        }
+        if(bit_count > 0) {
+            if(count == buffer.length) {
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+            buffer[count++] = (byte) (bits << (8 - bit_count));
+            bit_count = 0;
+        }
+        out.write(buffer, 0, count);
+        count = 0;
+        out.flush();
+    } /* flush() */
+} /* BitWriter */
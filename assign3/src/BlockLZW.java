@@ -0,0 +1,336 @@
+/*************************************************************************
+ * @brief BlockLZW.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 11/04/2019
+ *
+ * Compresses a file as independent LZWmod blocks on a pool of threads.
+ *************************************************************************/
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.*;
+
+/**
+ * @brief a block container for the LZWmod format
+ * @details the input is cut into blocks of block_size bytes and each block is
+ *  compressed by its own LzwEncoder, so every block starts from a fresh
+ *  dictionary and the blocks can be compressed and expanded in parallel.
+ *  The output starts with an index so any block can be found without
+ *  expanding the ones before it:
+ *
+ *      int MAGIC, int block_size, int block_count,
+ *      block_count * (int original length, int compressed length),
+ *      the compressed blocks in order
+ *
+ *  (all ints are big endian, as DataOutputStream writes them)
+ *
+ *  Usage: BlockLZW - [r] [s] [block=MB] [threads=N] < input > output
+ *         BlockLZW + [threads=N] < input > output
+ *         BlockLZW @ file block > output   (expands one block)
+ **/
+public class BlockLZW {
+    //! Marks the start of a block container ("LZWB")
+    public static final int MAGIC = 0x4C5A5742;
+    //! Default number of input bytes per block
+    public static final int DEFAULT_BLOCK_SIZE = 4 << 20;
+    //! Size of the index before the per block entries
+    private static final int HEADER_SIZE = 12;
+    //! Size of each block's index entry
+    private static final int ENTRY_SIZE = 8;
+    //! Number of blocks read ahead per thread while the others are worked on
+    private static final int BLOCKS_PER_THREAD = 2;
+
+    //! Number of input bytes per block
+    private final int block_size;
+    //! Number of worker threads
+    private final int threads;
+    //! Compresses each block, it's shared by every worker
+    private final LzwEncoder encoder;
+
+    /**
+     * @brief makes a container with the default block size
+     * @param threads the number of worker threads
+     * @param allow_reset whether blocks start a new dictionary when theirs
+     *  fills up
+     * @param static_width whether blocks always use 12 bit codewords
+     **/
+    public BlockLZW(int threads, boolean allow_reset, boolean static_width) {
+        this(DEFAULT_BLOCK_SIZE, threads, allow_reset, static_width);
+    }
+
+    /**
+     * @brief makes a container
+     * @param block_size the number of input bytes per block
+     * @param threads the number of worker threads
+     * @param allow_reset whether blocks start a new dictionary when theirs
+     *  fills up
+     * @param static_width whether blocks always use 12 bit codewords
+     **/
+    public BlockLZW(int block_size, int threads, boolean allow_reset, boolean static_width) {
+        if(block_size < 1) {
+            throw new IllegalArgumentException("Illegal block size " + block_size);
+        }
+        this.block_size = block_size;
+        this.threads = Math.max(1, threads);
+        this.encoder = new LzwEncoder(allow_reset, static_width);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1) {
+            throw new RuntimeException("Illegal command line argument");
+        }
+        boolean allow_reset = false;
+        boolean static_width = false;
+        int block_size = DEFAULT_BLOCK_SIZE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for(int i = 1; i < args.length; ++i) {
+            if(args[i].equals("r")) {
+                allow_reset = true;
+            } else if(args[i].equals("s")) {
+                static_width = true;
+            } else if(args[i].startsWith("block=")) {
+                block_size = Integer.parseInt(args[i].substring(6)) << 20;
+            } else if(args[i].startsWith("threads=")) {
+                threads = Integer.parseInt(args[i].substring(8));
+            }
+        }
+
+        BlockLZW container = new BlockLZW(block_size, threads, allow_reset, static_width);
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out));
+        if(args[0].equals("-")) {
+            container.compress(new FileInputStream(FileDescriptor.in), out);
+        } else if(args[0].equals("+")) {
+            container.expand(new FileInputStream(FileDescriptor.in), out);
+        } else if(args[0].equals("@") && args.length >= 3) {
+            SeekableByteChannel in = java.nio.file.Files.newByteChannel(Paths.get(args[1]), StandardOpenOption.READ);
+            try {
+                out.write(expandBlock(in, Integer.parseInt(args[2])));
+            } finally {
+                in.close();
+            }
+        } else {
+            throw new RuntimeException("Illegal command line argument");
+        }
+        out.flush();
+    } /* main() */
+
+    /**
+     * @brief compresses a stream into a block container
+     * @details blocks are read while earlier ones are compressed, but every
+     *  compressed block is held until the input ends since the index goes
+     *  first
+     * @param in the stream to compress (it is not closed)
+     * @param out where to write the container, it is flushed but not closed
+     **/
+    public void compress(InputStream in, OutputStream out) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<byte[]>> blocks = new ArrayList<Future<byte[]>>();
+            ArrayList<Integer> lengths = new ArrayList<Integer>();
+            while(true) {
+                byte[] block = new byte[block_size];
+                int length = readFully(in, block);
+                if(length == 0) {
+                    break;
+                }
+                lengths.add(length);
+                blocks.add(pool.submit(compressTask(block, length)));
+                // Don't read far ahead of the workers
+                if(blocks.size() > BLOCKS_PER_THREAD * threads) {
+                    get(blocks.get(blocks.size() - BLOCKS_PER_THREAD * threads - 1));
+                }
+                if(length < block_size) {
+                    break;
+                }
+            }
+
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(MAGIC);
+            data.writeInt(block_size);
+            data.writeInt(blocks.size());
+            ArrayList<byte[]> compressed = new ArrayList<byte[]>(blocks.size());
+            for(int i = 0; i < blocks.size(); ++i) {
+                compressed.add(get(blocks.get(i)));
+                data.writeInt(lengths.get(i));
+                data.writeInt(compressed.get(i).length);
+            }
+            for(byte[] block : compressed) {
+                data.write(block);
+            }
+            data.flush();
+        } finally {
+            pool.shutdownNow();
+        }
+    } /* compress(InputStream in, OutputStream out) */
+
+    /**
+     * @brief expands a block container into a stream
+     * @details blocks are expanded in parallel and written in order, with at
+     *  most a few blocks per thread held at once
+     * @param in the container to expand (it is not closed)
+     * @param out where to write the expanded data, it is flushed but not
+     *  closed
+     **/
+    public void expand(InputStream in, OutputStream out) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int[][] index = readIndex(data);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayDeque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+            for(int i = 0; i < index.length; ++i) {
+                byte[] block = new byte[index[i][1]];
+                data.readFully(block);
+                pending.add(pool.submit(expandTask(i, block, index[i][0])));
+                if(pending.size() > BLOCKS_PER_THREAD * threads) {
+                    out.write(get(pending.remove()));
+                }
+            }
+            while(!pending.isEmpty()) {
+                out.write(get(pending.remove()));
+            }
+            out.flush();
+        } finally {
+            pool.shutdownNow();
+        }
+    } /* expand(InputStream in, OutputStream out) */
+
+    /**
+     * @brief gets the number of blocks in a container
+     * @param in the container, read from the start
+     **/
+    public static int blockCount(SeekableByteChannel in) throws IOException {
+        return readIndex(in).length;
+    }
+
+    /**
+     * @brief expands a single block of a container without reading the rest
+     * @param in the container, read from the start
+     * @param block the index of the block
+     * @return the block's original bytes
+     **/
+    public static byte[] expandBlock(SeekableByteChannel in, int block) throws IOException {
+        int[][] index = readIndex(in);
+        if(block < 0 || block >= index.length) {
+            throw new IndexOutOfBoundsException("Block " + block + " of " + index.length);
+        }
+        long offset = HEADER_SIZE + (long) ENTRY_SIZE * index.length;
+        for(int i = 0; i < block; ++i) {
+            offset += index[i][1];
+        }
+        ByteBuffer compressed = ByteBuffer.allocate(index[block][1]);
+        in.position(offset);
+        while(compressed.hasRemaining()) {
+            if(in.read(compressed) < 0) {
+                throw new EOFException("Block " + block + " is cut off");
+            }
+        }
+        return expandBlock(block, compressed.array(), index[block][0]);
+    } /* expandBlock(SeekableByteChannel in, int block) */
+
+    /**
+     * @brief reads the index at the start of a channel
+     * @return the original and compressed length of each block
+     **/
+    private static int[][] readIndex(SeekableByteChannel in) throws IOException {
+        in.position(0);
+        return readIndex(new DataInputStream(new BufferedInputStream(Channels.newInputStream(in))));
+    }
+
+    /**
+     * @brief reads the index at the start of a container
+     * @return the original and compressed length of each block
+     **/
+    private static int[][] readIndex(DataInputStream data) throws IOException {
+        if(data.readInt() != MAGIC) {
+            throw new IOException("Not a block container");
+        }
+        data.readInt(); // block size, only needed when compressing
+        int count = data.readInt();
+        if(count < 0) {
+            throw new IOException("Bad block count " + count);
+        }
+        int[][] index = new int[count][2];
+        for(int i = 0; i < count; ++i) {
+            index[i][0] = data.readInt();
+            index[i][1] = data.readInt();
+        }
+        return index;
+    } /* readIndex(DataInputStream data) */
+
+    /**
+     * @brief makes the task that compresses one block
+     **/
+    private Callable<byte[]> compressTask(final byte[] block, final int length) {
+        return new Callable<byte[]>() {
+            public byte[] call() throws IOException {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2);
+                encoder.encode(new ByteArrayInputStream(block, 0, length), compressed);
+                return compressed.toByteArray();
+            }
+        };
+    } /* compressTask(byte[] block, int length) */
+
+    /**
+     * @brief makes the task that expands one block
+     **/
+    private static Callable<byte[]> expandTask(final int block, final byte[] compressed, final int length) {
+        return new Callable<byte[]>() {
+            public byte[] call() throws IOException {
+                return expandBlock(block, compressed, length);
+            }
+        };
+    } /* expandTask(int block, byte[] compressed, int length) */
+
+    /**
+     * @brief expands one compressed block
+     * @throws IOException if it doesn't expand to its original length
+     **/
+    private static byte[] expandBlock(int block, byte[] compressed, int length) throws IOException {
+        ByteArrayOutputStream expanded = new ByteArrayOutputStream(length);
+        new LzwDecoder().decode(new ByteArrayInputStream(compressed), expanded);
+        if(expanded.size() != length) {
+            throw new IOException("Block " + block + " expanded to " + expanded.size()
+                                  + " bytes, expected " + length);
+        }
+        return expanded.toByteArray();
+    } /* expandBlock(int block, byte[] compressed, int length) */
+
+    /**
+     * @brief reads until a buffer is full or the stream ends
+     * @return the number of bytes read
+     **/
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        while(length < buffer.length) {
+            int read = in.read(buffer, length, buffer.length - length);
+            if(read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    } /* readFully(InputStream in, byte[] buffer) */
+
+    /**
+     * @brief waits for a worker's result
+     * @throws IOException the worker's IOException, if it threw one
+     **/
+    private static byte[] get(Future<byte[]> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a block");
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Block failed", e.getCause());
+        }
+    } /* get(Future<byte[]> result) */
+} /* BlockLZW */
@@ -6,6 +6,7 @@
  * This code was taken from the provided LZW.java/extended lab code then
  *  modified to fulfill this assignment.
  *************************************************************************/
+import java.io.IOException;
 
 public class LZWmod {
     //! Number of input chars
@@ -24,23 +25,20 @@ public class LZWmod {
     private static boolean print_debugs;
     //! Flag to use for printing out something only once
     private static boolean out_of_words = false;
+    //! Whether or not to compress with a LzwEncoder instead of a TSTmod
+    private static boolean hashed_encoder;
+    //! Whether or not to expand with a LzwDecoder instead of Strings
+    private static boolean array_decoder;
 
     /**
      * @brief compresses the data from stdin, to stdout
      **/
-    public static void compress() {
-        // Set a bit in the file to determing whether or not it's allowing reset
-        if(allow_reset) {
-            BinaryStdOut.write(1, 1);
-        } else {
-            BinaryStdOut.write(0, 1);
-        }
-        // Set a bit to determine whether or not to allow dynamic lengths
-        if(W_MIN == W_MAX) {
-            BinaryStdOut.write(1, 1);
-        } else {
-            BinaryStdOut.write(0, 1);
+    public static void compress() throws IOException {
+        if(hashed_encoder) {
+            compressHashed();
+            return;
         }
+        writeHeader();
         int written_codewords = 0;
 
         TSTmod<Integer> st = new TSTmod<Integer>();
@@ -100,32 +98,41 @@ public class LZWmod {
     } /* compress() */
 
     /**
-     * @brief decompresses the data from stdin, to stdout
+     * @brief compresses the data from stdin, to stdout, with a LzwEncoder
+     * @details writes exactly what compress() writes, and also takes empty
+     *  input
      **/
-    public static void expand() {
-        if(BinaryStdIn.readInt(1) == 1) {
-            if(print_debugs)
-                System.err.println("Allowing reset.");
-            allow_reset = true;
+    public static void compressHashed() throws IOException {
+        new LzwEncoder(allow_reset, W_MIN == W_MAX).encode(System.in, System.out);
+    } /* compressHashed() */
+
+    /**
+     * @brief writes the reset and static length bits that start the output
+     **/
+    private static void writeHeader() {
+        // Set a bit in the file to determing whether or not it's allowing reset
+        if(allow_reset) {
+            BinaryStdOut.write(1, 1);
         } else {
-            if(print_debugs)
-                System.err.println("Disallowing reset.");
-            allow_reset = false;
+            BinaryStdOut.write(0, 1);
         }
-        if(BinaryStdIn.readInt(1) == 1) {
-            if(print_debugs)
-                System.err.println("Using static length code words.");
-                System.err.println("Using dynamic length code words, W_MIN: " + W_MIN + " W_MAX: " + W_MAX + " W: " + W);
-            W_MIN = W_MAX = W = 12;
-            L = 1 << W;
+        // Set a bit to determine whether or not to allow dynamic lengths
+        if(W_MIN == W_MAX) {
+            BinaryStdOut.write(1, 1);
         } else {
-            W_MIN = 9;
-            W_MAX = 16;
-            W = 9;
-            L = 1 << W;
-            if(print_debugs)
-                System.err.println("Using dynamic length code words, W_MIN: " + W_MIN + " W_MAX: " + W_MAX + " W: " + W);
+            BinaryStdOut.write(0, 1);
+        }
+    } /* writeHeader() */
+
+    /**
+     * @brief decompresses the data from stdin, to stdout
+     **/
+    public static void expand() throws IOException {
+        if(array_decoder) {
+            expandArrays();
+            return;
         }
+        readHeader();
         String[] st = new String[1 << W_MAX];
         int i; // next available codeword value
 
@@ -135,6 +142,10 @@ public class LZWmod {
         st[i++] = "";                        // (unused) lookahead for EOF
 
         int codeword = BinaryStdIn.readInt(W);
+        if (codeword == R) {                 // empty input, nothing to write
+            BinaryStdOut.close();
+            return;
+        }
         String val = st[codeword];
 
         while (true) {
@@ -181,7 +192,43 @@ public class LZWmod {
         BinaryStdOut.close();
     } /* expand() */
 
-    public static void main(String[] args) {
+    /**
+     * @brief decompresses the data from stdin, to stdout, with a LzwDecoder
+     **/
+    public static void expandArrays() throws IOException {
+        new LzwDecoder().decode(System.in, System.out);
+    } /* expandArrays() */
+
+    /**
+     * @brief reads the reset and static length bits that start the input
+     **/
+    private static void readHeader() {
+        if(BinaryStdIn.readInt(1) == 1) {
+            if(print_debugs)
+                System.err.println("Allowing reset.");
+            allow_reset = true;
+        } else {
+            if(print_debugs)
+                System.err.println("Disallowing reset.");
+            allow_reset = false;
+        }
+        if(BinaryStdIn.readInt(1) == 1) {
+            if(print_debugs)
+                System.err.println("Using static length code words.");
+                System.err.println("Using dynamic length code words, W_MIN: " + W_MIN + " W_MAX: " + W_MAX + " W: " + W);
+            W_MIN = W_MAX = W = 12;
+            L = 1 << W;
+        } else {
+            W_MIN = 9;
+            W_MAX = 16;
+            W = 9;
+            L = 1 << W;
+            if(print_debugs)
+                System.err.println("Using dynamic length code words, W_MIN: " + W_MIN + " W_MAX: " + W_MAX + " W: " + W);
+        }
+    } /* readHeader() */
+
+    public static void main(String[] args) throws IOException {
         // Whether or not to allow resets
         allow_reset = false;
         for(int i = 1; i < args.length; ++i) {
@@ -206,6 +253,27 @@ public class LZWmod {
                 print_debugs = true;
             }
         }
+        // Whether or not to compress with the hash table encoder
+        hashed_encoder = false;
+        for(int i = 1; i < args.length; ++i) {
+            if(args[i].equals("h")) {
+                hashed_encoder = true;
+            }
+        }
+        // Whether or not to expand with the array decoder
+        array_decoder = false;
+        for(int i = 1; i < args.length; ++i) {
+            if(args[i].equals("a")) {
+                array_decoder = true;
+            }
+        }
+        // Whether or not to read and write whole codewords at a time
+        for(int i = 1; i < args.length; ++i) {
+            if(args[i].equals("w")) {
+                BinaryStdIn.setWordMode(true);
+                BinaryStdOut.setWordMode(true);
+            }
+        }
 
         if(print_debugs)
             System.err.println("Running with W_MIN: " + W + " W_MAX: " + W_MAX + " L: " + L);
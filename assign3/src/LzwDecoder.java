@@ -0,0 +1,173 @@
+/*************************************************************************
+ * @brief LzwDecoder.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 11/04/2019
+ *
+ * An instance version of LZWmod's expansion that works on any stream.
+ *************************************************************************/
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * @brief expands streams in the LZWmod format
+ * @details reads the reset and width options from the header, so it expands
+ *  anything LzwEncoder or LZWmod compressed. It's what "LZWmod + a" runs.
+ *  Every decode() keeps its own dictionary, so one decoder can expand any
+ *  number of streams at the same time from different threads.
+ **/
+public class LzwDecoder {
+    //! Number of input chars
+    private static final int R = 256;
+    //! Number of bytes collected before they're written to the output
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * @brief expands a channel into another
+     * @param in the channel to expand (it is not closed)
+     * @param out where to write the expanded data (it is not closed)
+     **/
+    public void decode(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        decode(Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
+    /**
+     * @brief expands a stream into another
+     * @details each code is kept as the code it extends, its last byte and
+     *  its length, and is written out by walking back from its last byte into
+     *  one reusable buffer, so nothing is allocated per code. The entry added
+     *  on a reset extends a string from the old dictionary, so that string is
+     *  copied aside and its entry has no prefix code. It stops at the EOF
+     *  codeword. Anything after it in the input is left unread or in the
+     *  reader's buffer.
+     * @param in the stream to expand (it is not closed)
+     * @param out where to write the expanded data, it is flushed but not
+     *  closed
+     * @throws java.io.EOFException if the input ends before the EOF codeword
+     **/
+    public void decode(InputStream in, OutputStream out) throws IOException {
+        BitReader bits = new BitReader(in);
+        BufferedOutputStream output = new BufferedOutputStream(out, BUFFER_SIZE);
+        boolean allow_reset = bits.readInt(1) == 1;
+        int W_MIN, W_MAX;
+        if(bits.readInt(1) == 1) {
+            W_MIN = W_MAX = 12;
+        } else {
+            W_MIN = 9;
+            W_MAX = 16;
+        }
+        int W = W_MIN;
+        int L = 1 << W;
+
+        int[] prefix = new int[1 << W_MAX];
+        byte[] last = new byte[1 << W_MAX];
+        int[] length = new int[1 << W_MAX];
+        int i; // next available codeword value
+
+        // initialize symbol table with all 1-character strings
+        for(i = 0; i < R; i++) {
+            prefix[i] = -1;
+            last[i] = (byte) i;
+            length[i] = 1;
+        }
+        prefix[i++] = -1;                    // (unused) lookahead for EOF
+
+        // The string the entry added on the last reset extends
+        byte[] orphan = new byte[1 << W_MAX];
+        // The string of the current code
+        byte[] buffer = new byte[1 << W_MAX];
+
+        int codeword = bits.readInt(W);
+        int val = codeword;
+        int count = 0;
+        if(codeword != R) {
+            count = decode(codeword, prefix, last, length, orphan, buffer);
+        }
+
+        while(codeword != R) {
+            output.write(buffer, 0, count);
+            // The width only changes when the dictionary is full
+            boolean reset = false;
+            if(i < L || W_MIN == W_MAX) {
+                codeword = bits.readInt(W);
+                reset = i >= L && allow_reset;
+            } else if(W < W_MAX) {
+                codeword = bits.readInt(W + 1);
+            } else if(allow_reset) {
+                codeword = bits.readInt(W_MIN);
+                reset = true;
+            } else {
+                codeword = bits.readInt(W);
+            }
+            if(codeword == R) break;
+            if(reset) {
+                // The old dictionary's strings are about to be overwritten
+                if(count > orphan.length) {
+                    orphan = new byte[buffer.length];
+                }
+                System.arraycopy(buffer, 0, orphan, 0, count);
+            }
+            if(reset ? codeword == R+1 : codeword == i) {
+                // special case, the code being added is val + val.charAt(0)
+                if(count == buffer.length) {
+                    buffer = java.util.Arrays.copyOf(buffer, count << 1);
+                }
+                buffer[count] = buffer[0];
+                ++count;
+            } else {
+                count = decode(codeword, prefix, last, length, orphan, buffer);
+                if(count > buffer.length) {
+                    buffer = new byte[count << 1];
+                    count = decode(codeword, prefix, last, length, orphan, buffer);
+                }
+            }
+            if(i < L || W < W_MAX) {
+                if(i >= L) {
+                    ++W;
+                    L = L << 1;
+                }
+                prefix[i] = val;
+                last[i] = buffer[0];
+                length[i] = length[val] + 1;
+                ++i;
+            } else if(reset) {
+                // Reset dictionary
+                W = W_MIN;
+                L = 1 << W;
+
+                i = R+1;
+                prefix[i] = -1;
+                last[i] = buffer[0];
+                length[i] = length[val] + 1;
+                ++i;
+            }
+            val = codeword;
+        }
+        output.flush();
+    } /* decode(InputStream in, OutputStream out) */
+
+    /**
+     * @brief writes the string of a code into a buffer
+     * @details walks back from the code's last byte, the entry added on a
+     *  reset ends the walk early and the rest comes from orphan
+     * @return the length of the string, nothing is written if the buffer is
+     *  too small for it
+     **/
+    private static int decode(int code, int[] prefix, byte[] last, int[] length, byte[] orphan, byte[] buffer) {
+        int count = length[code];
+        if(count > buffer.length) {
+            return count;
+        }
+        int j = count;
+        while(code >= 0) {
+            buffer[--j] = last[code];
+            code = prefix[code];
+        }
+        System.arraycopy(orphan, 0, buffer, 0, j);
+        return count;
+    } /* decode(int code, int[] prefix, byte[] last, int[] length, byte[] orphan, byte[] buffer) */
+} /* LzwDecoder */
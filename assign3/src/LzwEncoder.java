@@ -0,0 +1,274 @@
+/*************************************************************************
+ * @brief LzwEncoder.java
+ * @author Joshua Spisak <jjs231@pitt.edu>
+ * @date 11/04/2019
+ *
+ * An instance version of LZWmod's compression that works on any stream.
+ *************************************************************************/
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * @brief compresses streams into the LZWmod format
+ * @details writes the same output as "LZWmod -" given the same options (it's
+ *  what "LZWmod - h" runs), so either can be expanded by LzwDecoder or
+ *  LZWmod. Empty input, which "LZWmod -" can't compress, becomes just the
+ *  header and the EOF codeword. Every encode() keeps its own dictionary and
+ *  code width, so one encoder can compress any number of streams at the same
+ *  time from different threads.
+ **/
+public class LzwEncoder {
+    //! Number of input chars
+    private static final int R = 256;
+    //! Number of bytes read from the input at once
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    //! Minimum width of codewords
+    private final int W_MIN;
+    //! Maximum width of codewords
+    private final int W_MAX;
+    //! Whether or not to allow resetting the dictionary
+    private final boolean allow_reset;
+
+    /**
+     * @brief makes an encoder with 9 to 16 bit codewords and no resets
+     **/
+    public LzwEncoder() {
+        this(false, false);
+    }
+
+    /**
+     * @brief makes an encoder
+     * @param allow_reset whether to start a new dictionary when it fills up
+     *  (LZWmod's r option)
+     * @param static_width whether to always use 12 bit codewords instead of
+     *  9 to 16 bits (LZWmod's s option)
+     **/
+    public LzwEncoder(boolean allow_reset, boolean static_width) {
+        this.allow_reset = allow_reset;
+        if(static_width) {
+            W_MIN = W_MAX = 12;
+        } else {
+            W_MIN = 9;
+            W_MAX = 16;
+        }
+    }
+
+    /**
+     * @brief compresses everything left in a channel into another
+     * @param in the channel to compress (it is not closed)
+     * @param out where to write the compressed data (it is not closed)
+     **/
+    public void encode(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        encode(Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
+    /**
+     * @brief compresses everything left in a stream into another
+     * @details writes exactly what LZWmod's TSTmod encoder writes. The only
+     *  entry that isn't a known code plus a char is the one added on a reset,
+     *  which can extend a string that is no longer in the table. It is held
+     *  back until that string is added again, the only way it could be
+     *  matched anyway.
+     * @param in the stream to compress (it is not closed)
+     * @param out where to write the compressed data, it is flushed but not
+     *  closed
+     **/
+    public void encode(InputStream in, OutputStream out) throws IOException {
+        BitWriter bits = new BitWriter(out);
+        // The reset bit then the static length bit, like LZWmod
+        bits.write(allow_reset ? 1 : 0, 1);
+        bits.write(W_MIN == W_MAX ? 1 : 0, 1);
+        int W = W_MIN;
+        int L = 1 << W;
+
+        CodeTable st = new CodeTable(1 << W_MAX);
+        int code = R+1;  // R is codeword for EOF
+        // The string and char of the entry added on the last reset, if the
+        //  string hasn't been added since
+        char[] orphan = new char[1 << W_MAX];
+        int orphan_length = 0;
+        char orphan_char = 0;
+
+        byte[] input = new byte[BUFFER_SIZE];
+        // The code of the current string, -1 before the first char
+        int current = -1;
+        int read;
+        while((read = in.read(input, 0, input.length)) >= 0) {
+            for(int i = 0; i < read; ++i) {
+                char c = (char) (input[i] & 0xff);
+                if(current < 0) {
+                    current = c;
+                    continue;
+                }
+                int next = st.get(current, c);
+                if(next >= 0) {
+                    current = next;
+                    continue;
+                }
+                bits.write(current, W);
+                if(code < L || W < W_MAX) { // Add to symbol table if not full
+                    if(code >= L) { // If we can increment W, do that
+                        ++W;
+                        L = L << 1;
+                    }
+                    st.put(current, c, code);
+                    if(orphan_length > 0 && st.equals(code, orphan, orphan_length)) {
+                        st.put(code, orphan_char, R+1);
+                        orphan_length = 0;
+                    }
+                    ++code;
+                } else if(allow_reset) {
+                    // Reset dictionary
+                    W = W_MIN;
+                    L = 1 << W;
+
+                    if(st.length(current) > orphan.length) {
+                        orphan = new char[st.length(current)];
+                    }
+                    orphan_length = st.copy(current, orphan);
+                    orphan_char = c;
+                    st.clear();
+                    code = R+1;
+                    if(orphan_length == 1) {
+                        st.put(orphan[0], c, code);
+                        orphan_length = 0;
+                    }
+                    ++code;
+                }
+                current = c;
+            }
+        }
+
+        // Write the codeword of whatever remains (nothing for empty input)
+        if(current >= 0) {
+            bits.write(current, W);
+        }
+        bits.write(R, W); // Write EOF
+        bits.flush();
+    } /* encode(InputStream in, OutputStream out) */
+
+    /**
+     * @brief the encoder's codebook as (prefix code, next char) pairs
+     * @details every entry past the single chars is an existing entry plus one
+     *  char, so it is stored as that pair in an open addressing table of ints
+     *  and found with one probe sequence instead of walking the whole string.
+     *  Each code also remembers its prefix, last char and length so the string
+     *  it stands for can be read back.
+     **/
+    private static class CodeTable {
+        //! Marks an empty slot in keys
+        private static final int EMPTY = -1;
+        //! Keys of the table, (prefix << 8) | char or EMPTY
+        private final int[] keys;
+        //! Code stored for the key in the same slot
+        private final int[] codes;
+        //! keys.length - 1, the table size is a power of two
+        private final int mask;
+        //! The code each code extends (-1 for single chars)
+        private final int[] prefix;
+        //! The last char of each code
+        private final char[] last;
+        //! The length of the string each code stands for
+        private final int[] length;
+
+        /**
+         * @brief makes a table with the single chars
+         * @param max_codes the number of codes it must hold
+         **/
+        CodeTable(int max_codes) {
+            // Keep the table at most half full so probes stay short
+            keys = new int[max_codes << 1];
+            codes = new int[keys.length];
+            mask = keys.length - 1;
+            prefix = new int[max_codes];
+            last = new char[max_codes];
+            length = new int[max_codes];
+            for(int i = 0; i < R; ++i) {
+                prefix[i] = -1;
+                last[i] = (char) i;
+                length[i] = 1;
+            }
+            clear();
+        }
+
+        /**
+         * @brief drops every entry but the single chars
+         **/
+        void clear() {
+            java.util.Arrays.fill(keys, EMPTY);
+        }
+
+        /**
+         * @brief finds the slot for a key
+         * @return the slot holding the key or the empty slot it would go in
+         **/
+        private int slot(int key) {
+            int i = (key * 0x9E3779B1) >>> 15 & mask;
+            while(keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        /**
+         * @brief gets the code for a code followed by a char
+         * @return the code or -1 if it isn't in the table
+         **/
+        int get(int code, char c) {
+            int i = slot((code << 8) | c);
+            return keys[i] == EMPTY ? -1 : codes[i];
+        }
+
+        /**
+         * @brief adds a code for a code followed by a char
+         **/
+        void put(int code, char c, int new_code) {
+            int key = (code << 8) | c;
+            int i = slot(key);
+            keys[i] = key;
+            codes[i] = new_code;
+            prefix[new_code] = code;
+            last[new_code] = c;
+            length[new_code] = length[code] + 1;
+        }
+
+        /**
+         * @brief checks if a code stands for the same string as some chars
+         **/
+        boolean equals(int code, char[] chars, int count) {
+            if(length[code] != count) {
+                return false;
+            }
+            for(int i = count - 1; i >= 0; --i, code = prefix[code]) {
+                if(last[code] != chars[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @brief gets the length of the string a code stands for
+         **/
+        int length(int code) {
+            return length[code];
+        }
+
+        /**
+         * @brief copies the string a code stands for into a buffer
+         * @return the length of the string
+         **/
+        int copy(int code, char[] chars) {
+            int count = length[code];
+            for(int i = count - 1; i >= 0; --i, code = prefix[code]) {
+                chars[i] = last[code];
+            }
+            return count;
+        }
+    } /* CodeTable */
+} /* LzwEncoder */